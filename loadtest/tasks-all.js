@@ -0,0 +1,30 @@
+// Carga em GET /api/v1/task/all para comparar platform threads x virtual threads.
+//
+//   k6 run -e BASE_URL=http://localhost:8080 -e TOKEN=<jwt> -e VUS=1000 loadtest/tasks-all.js
+//   k6 run -e BASE_URL=http://localhost:8080 -e TOKEN=<jwt> -e VUS=10000 loadtest/tasks-all.js
+//
+// Rode cada carga duas vezes: com a aplicação normal e com -Pvirtual-threads,
+// e compare http_reqs (throughput) e http_req_duration p(95)/p(99).
+import http from 'k6/http';
+import { check } from 'k6';
+
+const vus = Number(__ENV.VUS || 1000);
+
+export const options = {
+    scenarios: {
+        connections: {
+            executor: 'constant-vus',
+            vus: vus,
+            duration: __ENV.DURATION || '60s',
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+export default function () {
+    const response = http.get(`${__ENV.BASE_URL}/api/v1/task/all`, {
+        headers: { Authorization: `Bearer ${__ENV.TOKEN}` },
+    });
+
+    check(response, { 'status 200': (r) => r.status === 200 });
+}
@@ -0,0 +1,100 @@
+package com.kioshi.todolist.dtos.task;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kioshi.todolist.entities.TaskEntity;
+import com.kioshi.todolist.entities.UserEntity;
+import com.kioshi.todolist.enums.Permission;
+
+/*
+ * Compara o DTO de leitura atual com a lista de TaskEntity (com o UserEntity
+ * embutido) que /task/all devolvia antes. Rode com "-prof gc" para ver a
+ * alocação por operação; o tamanho do payload é impresso no setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class TaskSerializationBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int tasks;
+
+    private ObjectMapper objectMapper;
+    private GetTasksResponseDTO response;
+    private List<TaskEntity> entities;
+
+    @Setup
+    public void setUp() throws JsonProcessingException{
+        this.objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        UserEntity user = UserEntity.builder()
+        .id(UUID.randomUUID())
+        .name("John Doe")
+        .username("john_doe")
+        .password("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z6xKfY4vYkZ8D1QeQ2sN9y8K")
+        .email("johndoe@email.com")
+        .phoneNumber("18991111111")
+        .verified(true)
+        .permission(Permission.USER)
+        .createdAt(LocalDateTime.now())
+        .build();
+
+        List<TaskResponseDTO> dtos = new ArrayList<>(this.tasks);
+        this.entities = new ArrayList<>(this.tasks);
+
+        for(int i = 0; i < this.tasks; i++){
+            TaskEntity task = TaskEntity.builder()
+            .id(UUID.randomUUID())
+            .name("Task " + i)
+            .content("Conteúdo da task número " + i)
+            .completed(i % 2 == 0)
+            .userEntity(user)
+            .createdAt(LocalDateTime.now())
+            .version(0L)
+            .build();
+
+            this.entities.add(task);
+            dtos.add(new TaskResponseDTO(task.getId(), task.getName(), task.getContent(), task.getCompleted(), task.getCreatedAt(), task.getVersion()));
+        }
+
+        this.response = new GetTasksResponseDTO(dtos);
+
+        System.out.printf("%n[payload] tasks=%d dto=%d bytes entity=%d bytes%n",
+            this.tasks,
+            this.objectMapper.writeValueAsBytes(this.response).length,
+            this.objectMapper.writeValueAsBytes(this.entities).length
+        );
+    }
+
+    @Benchmark
+    public byte[] serializeResponseDTO() throws JsonProcessingException{
+        return this.objectMapper.writeValueAsBytes(this.response);
+    }
+
+    @Benchmark
+    public byte[] serializeEntities() throws JsonProcessingException{
+        return this.objectMapper.writeValueAsBytes(this.entities);
+    }
+}
@@ -0,0 +1,86 @@
+package com.kioshi.todolist.security;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.DecodedJWT;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class JWTProviderBenchmark {
+
+    static final String SECRET = "benchmark-secret";
+
+    private JWTProvider jwtProvider;
+    private UUID userId;
+    private String header;
+
+    static JWTProvider newProvider(){
+        JWTProvider jwtProvider = new JWTProvider();
+        ReflectionTestUtils.setField(jwtProvider, "jwt_secret", SECRET);
+        ReflectionTestUtils.setField(jwtProvider, "activeKid", "default");
+        ReflectionTestUtils.setField(jwtProvider, "previousKeys", "old:old-benchmark-secret");
+        ReflectionTestUtils.setField(jwtProvider, "accessTtlMinutes", 15L);
+        ReflectionTestUtils.setField(jwtProvider, "meterRegistry", new SimpleMeterRegistry());
+        jwtProvider.init();
+        return jwtProvider;
+    }
+
+    @Setup
+    public void setUp(){
+        this.jwtProvider = newProvider();
+
+        this.userId = UUID.randomUUID();
+        this.header = "Bearer " + this.jwtProvider.createToken(this.userId, "ROLE_USER", 0);
+    }
+
+    @Benchmark
+    public String createToken(){
+        return this.jwtProvider.createToken(this.userId, "ROLE_USER", 0);
+    }
+
+    @Benchmark
+    public DecodedJWT validateToken(){
+        return this.jwtProvider.validateToken(this.header);
+    }
+
+    // Implementação anterior, que montava Algorithm e JWTVerifier a cada chamada (para comparação)
+    @Benchmark
+    public String createTokenRebuildingAlgorithm(){
+        return JWT.create()
+                .withIssuer("todolist-api")
+                .withSubject(this.userId.toString())
+                .withClaim("role", "ROLE_USER")
+                .withExpiresAt(Instant.now().plus(Duration.ofHours(2)))
+                .sign(Algorithm.HMAC256(SECRET));
+    }
+
+    @Benchmark
+    public DecodedJWT validateTokenRebuildingVerifier(){
+        return JWT.require(Algorithm.HMAC256(SECRET))
+                .build()
+                .verify(this.header.replace("Bearer ", ""));
+    }
+}
@@ -0,0 +1,47 @@
+package com.kioshi.todolist.security;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(2)
+public class PasswordEncoderBenchmark {
+
+    @Param({"8", "10", "12"})
+    private int strength;
+
+    private BCryptPasswordEncoder encoder;
+    private String encodedPassword;
+
+    @Setup
+    public void setUp(){
+        this.encoder = new BCryptPasswordEncoder(this.strength);
+        this.encodedPassword = this.encoder.encode("senha12345");
+    }
+
+    @Benchmark
+    public String encode(){
+        return this.encoder.encode("senha12345");
+    }
+
+    @Benchmark
+    public boolean matches(){
+        return this.encoder.matches("senha12345", this.encodedPassword);
+    }
+}
@@ -0,0 +1,76 @@
+package com.kioshi.todolist.security;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SecurityFilterBenchmark {
+
+    private SecurityFilter securityFilter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private FilterChain filterChain;
+
+    @Setup
+    public void setUp(){
+        JWTProvider jwtProvider = JWTProviderBenchmark.newProvider();
+
+        VerifiedTokenCache verifiedTokenCache = new VerifiedTokenCache();
+        ReflectionTestUtils.setField(verifiedTokenCache, "maxSize", 1000L);
+        ReflectionTestUtils.setField(verifiedTokenCache, "meterRegistry", new SimpleMeterRegistry());
+        verifiedTokenCache.init();
+
+        this.securityFilter = new SecurityFilter();
+        ReflectionTestUtils.setField(this.securityFilter, "jwtProvider", jwtProvider);
+        ReflectionTestUtils.setField(this.securityFilter, "verifiedTokenCache", verifiedTokenCache);
+        // Sem init(): registro vazio, sem banco; mede o caminho comum de token não revogado
+        ReflectionTestUtils.setField(this.securityFilter, "revokedTokenRegistry", new RevokedTokenRegistry());
+
+        // Versão já em cache: o loader (banco) nunca é chamado no benchmark
+        UUID userId = UUID.randomUUID();
+        TokenVersionCache tokenVersionCache = new TokenVersionCache();
+        ReflectionTestUtils.setField(tokenVersionCache, "maxSize", 1000L);
+        ReflectionTestUtils.setField(tokenVersionCache, "refreshMs", 3_600_000L);
+        ReflectionTestUtils.setField(tokenVersionCache, "meterRegistry", new SimpleMeterRegistry());
+        tokenVersionCache.init();
+        tokenVersionCache.put(userId, 0);
+        ReflectionTestUtils.setField(this.securityFilter, "tokenVersionCache", tokenVersionCache);
+
+        String token = jwtProvider.createToken(userId, "ROLE_USER", 0);
+
+        this.request = new MockHttpServletRequest("GET", "/api/v1/task/all");
+        this.request.addHeader("Authorization", "Bearer " + token);
+        this.response = new MockHttpServletResponse();
+        this.filterChain = (req, res) -> {};
+    }
+
+    @Benchmark
+    public MockHttpServletResponse doFilterInternal() throws ServletException, IOException{
+        this.securityFilter.doFilterInternal(this.request, this.response, this.filterChain);
+        return this.response;
+    }
+}
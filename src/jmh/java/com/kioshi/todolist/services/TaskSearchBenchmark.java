@@ -0,0 +1,106 @@
+package com.kioshi.todolist.services;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import com.kioshi.todolist.TodolistApplication;
+import com.kioshi.todolist.dtos.task.SearchTasksRequestDTO;
+import com.kioshi.todolist.dtos.task.SearchTasksResponseDTO;
+
+/*
+ * Busca sobre 1M de tasks (1000 usuários x 1000 tasks) no Postgres do Testcontainers (precisa de Docker).
+ * As linhas entram via generate_series direto no banco; a meta é ficar abaixo de 10ms por busca.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class TaskSearchBenchmark {
+
+    private static final int USERS = 1000;
+    private static final int TASKS_PER_USER = 1000;
+
+    @Param({"mercado", "merc", "mercdo"})
+    private String query;
+
+    private PostgreSQLContainer<?> postgres;
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+    private UUID userId;
+
+    @Setup(Level.Trial)
+    public void setUp(){
+        this.postgres = new PostgreSQLContainer<>("postgres:15.3")
+            .withDatabaseName("benchmarkDB")
+            .withUsername("test")
+            .withPassword("test");
+        this.postgres.start();
+
+        this.context = new SpringApplicationBuilder(TodolistApplication.class)
+            .properties(
+                "server.port=0",
+                "spring.datasource.url=" + this.postgres.getJdbcUrl(),
+                "spring.datasource.username=" + this.postgres.getUsername(),
+                "spring.datasource.password=" + this.postgres.getPassword(),
+                "spring.jpa.hibernate.ddl-auto=validate",
+                "JWT_SECRET=benchmark-secret",
+                "app.mail.from=benchmark@todolist.local"
+            )
+            .run();
+
+        JdbcTemplate jdbcTemplate = this.context.getBean(JdbcTemplate.class);
+
+        jdbcTemplate.update("""
+            INSERT INTO users (id, name, username, password, email, phone_number, verified, permission, created_at)
+            SELECT gen_random_uuid(), 'Benchmark ' || u, 'benchmark' || u, 'benchmark',
+                   'benchmark' || u || '@todolist.local', '18991111111', true, 'USER', now()
+            FROM generate_series(1, ?) AS u
+            """, USERS);
+
+        // Vocabulário pequeno e repetido: cada termo aparece em muitas tasks, o pior caso para o ranking
+        jdbcTemplate.update("""
+            INSERT INTO tasks (id, name, content, completed, user_id, created_at, version)
+            SELECT gen_random_uuid(),
+                   (ARRAY['Ir ao mercado', 'Pagar boleto', 'Revisar relatório', 'Ligar para cliente', 'Estudar Java'])[1 + t % 5] || ' ' || t,
+                   'Conteúdo da task número ' || t,
+                   t % 2 = 0, u.id, now() - t * interval '1 second', 0
+            FROM users u CROSS JOIN generate_series(1, ?) AS t
+            """, TASKS_PER_USER);
+
+        jdbcTemplate.execute("ANALYZE tasks");
+
+        this.userId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = 'benchmark1'", UUID.class);
+        this.taskService = this.context.getBean(TaskService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown(){
+        this.context.close();
+        this.postgres.stop();
+    }
+
+    @Benchmark
+    public SearchTasksResponseDTO search(){
+        return this.taskService.search(new SearchTasksRequestDTO(this.userId, this.query, null, null));
+    }
+}
@@ -0,0 +1,118 @@
+package com.kioshi.todolist.services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import com.kioshi.todolist.TodolistApplication;
+import com.kioshi.todolist.dtos.task.GetTasksPageRequestDTO;
+import com.kioshi.todolist.dtos.task.GetTasksPageResponseDTO;
+import com.kioshi.todolist.dtos.task.GetTasksRequestDTO;
+import com.kioshi.todolist.dtos.task.GetTasksResponseDTO;
+import com.kioshi.todolist.entities.TaskEntity;
+import com.kioshi.todolist.entities.UserEntity;
+import com.kioshi.todolist.enums.Permission;
+import com.kioshi.todolist.repositories.TaskRepository;
+import com.kioshi.todolist.repositories.UserRepository;
+
+/*
+ * Sobe o contexto completo contra um Postgres do Testcontainers (precisa de Docker).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class TaskServiceBenchmark {
+
+    @Param({"100", "10000"})
+    private int tasks;
+
+    private PostgreSQLContainer<?> postgres;
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+    private UUID userId;
+
+    @Setup(Level.Trial)
+    public void setUp(){
+        this.postgres = new PostgreSQLContainer<>("postgres:15.3")
+            .withDatabaseName("benchmarkDB")
+            .withUsername("test")
+            .withPassword("test");
+        this.postgres.start();
+
+        this.context = new SpringApplicationBuilder(TodolistApplication.class)
+            .properties(
+                "server.port=0",
+                "spring.datasource.url=" + this.postgres.getJdbcUrl(),
+                "spring.datasource.username=" + this.postgres.getUsername(),
+                "spring.datasource.password=" + this.postgres.getPassword(),
+                "spring.jpa.hibernate.ddl-auto=validate",
+                "JWT_SECRET=benchmark-secret",
+                "app.mail.from=benchmark@todolist.local"
+            )
+            .run();
+
+        UserRepository userRepository = this.context.getBean(UserRepository.class);
+        TaskRepository taskRepository = this.context.getBean(TaskRepository.class);
+
+        UserEntity user = userRepository.save(UserEntity.builder()
+            .name("Benchmark")
+            .username("benchmark")
+            .password("benchmark")
+            .email("benchmark@todolist.local")
+            .phoneNumber("18991111111")
+            .verified(true)
+            .permission(Permission.USER)
+            .build());
+
+        List<TaskEntity> entities = new ArrayList<>(this.tasks);
+        for(int i = 0; i < this.tasks; i++){
+            entities.add(TaskEntity.builder()
+                .name("Task " + i)
+                .content("Conteúdo da task número " + i)
+                .completed(i % 2 == 0)
+                .userEntity(user)
+                .build());
+        }
+        taskRepository.saveAll(entities);
+
+        this.userId = user.getId();
+        this.taskService = this.context.getBean(TaskService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown(){
+        this.context.close();
+        this.postgres.stop();
+    }
+
+    @Benchmark
+    public GetTasksResponseDTO getTasks(){
+        return this.taskService.getTasks(new GetTasksRequestDTO(this.userId));
+    }
+
+    @Benchmark
+    public GetTasksPageResponseDTO getTasksFirstPage(){
+        return this.taskService.getTasksPage(new GetTasksPageRequestDTO(this.userId, null, 50, null));
+    }
+}
@@ -0,0 +1,37 @@
+package com.kioshi.todolist.utils;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class VerificationCodeUtilBenchmark {
+
+    private final VerificationCodeUtil verificationCodeUtil = new VerificationCodeUtil();
+
+    @Benchmark
+    public String generate(){
+        return this.verificationCodeUtil.generate();
+    }
+
+    // Mesmo gerador compartilhado entre threads, como no bean singleton
+    @Benchmark
+    @Threads(4)
+    public String generateContended(){
+        return this.verificationCodeUtil.generate();
+    }
+}
@@ -2,8 +2,12 @@ package com.kioshi.todolist;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import com.kioshi.todolist.config.NativeRuntimeHints;
 
 @SpringBootApplication
+@ImportRuntimeHints(NativeRuntimeHints.class)
 public class TodolistApplication {
 
 	public static void main(String[] args) {
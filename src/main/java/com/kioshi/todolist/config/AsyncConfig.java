@@ -0,0 +1,116 @@
+package com.kioshi.todolist.config;
+
+import java.util.concurrent.Executor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.AsyncConfigurer;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+@EnableAsync
+public class AsyncConfig implements AsyncConfigurer {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncConfig.class);
+
+    // Mesma flag que o Spring Boot usa para colocar o Tomcat em virtual threads
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    // Limite de envios simultâneos ao SMTP, nos dois modos
+    @Value("${app.mail.executor.concurrency:8}")
+    private int emailConcurrency;
+
+    @Value("${app.async.executor.concurrency:8}")
+    private int asyncConcurrency;
+
+    @Value("${app.async.executor.queue-capacity:1000}")
+    private int asyncQueueCapacity;
+
+    @Bean(name = "emailTaskExecutor")
+    public TaskExecutor emailTaskExecutor(){
+
+        if(this.virtualThreads){
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("email-vt-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(this.emailConcurrency);
+            return executor;
+        }
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("email-");
+        executor.setCorePoolSize(Math.min(2, this.emailConcurrency));
+        executor.setMaxPoolSize(this.emailConcurrency);
+        executor.setQueueCapacity(500);
+        executor.initialize();
+        return executor;
+    }
+
+    // Um único expurgo por vez basta: é trabalho de fundo e não deve disputar conexões com as requisições
+    @Bean(name = "taskPurgeExecutor")
+    public TaskExecutor taskPurgeExecutor(){
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("task-purge-");
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1000);
+        executor.initialize();
+        return executor;
+    }
+
+    // BCrypt é CPU pura: threads de plataforma limitadas ao número de núcleos e fila curta, mesmo com virtual threads ligadas
+    @Bean(name = "passwordHashingExecutor")
+    public ThreadPoolTaskExecutor passwordHashingExecutor(
+        @Value("${app.security.hashing.threads:0}") int threads,
+        @Value("${app.security.hashing.queue-capacity:64}") int queueCapacity
+    ){
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("password-hash-");
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.initialize();
+        return executor;
+    }
+
+    // Com os executors acima o Spring Boot deixa de criar o applicationTaskExecutor, e @Async sem qualificador e o
+    // async do MVC cairiam num SimpleAsyncTaskExecutor sem limite (uma thread por tarefa). Este é o padrão, limitado
+    @Bean(name = {"applicationTaskExecutor", "taskExecutor"})
+    public AsyncTaskExecutor applicationTaskExecutor(){
+
+        if(this.virtualThreads){
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("async-vt-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(this.asyncConcurrency);
+            return executor;
+        }
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("async-");
+        executor.setCorePoolSize(this.asyncConcurrency);
+        executor.setMaxPoolSize(this.asyncConcurrency);
+        executor.setQueueCapacity(this.asyncQueueCapacity);
+        executor.initialize();
+        return executor;
+    }
+
+    @Override
+    public Executor getAsyncExecutor(){
+        return this.applicationTaskExecutor();
+    }
+
+    @Override
+    public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler(){
+        return (ex, method, params) -> log.error("Falha na execução assíncrona de {}", method.getName(), ex);
+    }
+}
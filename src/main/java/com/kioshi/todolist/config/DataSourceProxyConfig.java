@@ -0,0 +1,32 @@
+package com.kioshi.todolist.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+@Configuration
+public class DataSourceProxyConfig {
+
+    // Embrulha só o DataSource usado pelo JPA/Flyway ("dataSource"); com réplica, isso já cobre os dois pools.
+    // static + ObjectProvider: o post-processor sobe antes dos demais beans sem forçar a criação do contador
+    @Bean
+    public static BeanPostProcessor dataSourceProxyPostProcessor(ObjectProvider<SqlStatementCounter> sqlStatementCounter){
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName){
+                if(bean instanceof DataSource dataSource && "dataSource".equals(beanName)){
+                    return ProxyDataSourceBuilder.create(dataSource)
+                        .name("todolist")
+                        .listener(sqlStatementCounter.getObject())
+                        .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
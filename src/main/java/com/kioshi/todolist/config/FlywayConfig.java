@@ -0,0 +1,17 @@
+package com.kioshi.todolist.config;
+
+import org.flywaydb.core.api.configuration.FluentConfiguration;
+import org.springframework.boot.autoconfigure.flyway.FlywayConfigurationCustomizer;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class FlywayConfig implements FlywayConfigurationCustomizer {
+
+    @Override
+    public void customize(FluentConfiguration configuration){
+        // Bancos criados pelo antigo ddl-auto=update ganham um baseline na versão 0 e recebem todas as migrations,
+        // que são idempotentes (IF NOT EXISTS)
+        configuration.baselineOnMigrate(true);
+        configuration.baselineVersion("0");
+    }
+}
@@ -0,0 +1,29 @@
+package com.kioshi.todolist.config;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class HibernateConfig implements HibernatePropertiesCustomizer {
+
+    @Value("${app.jpa.batch-size:50}")
+    private int batchSize;
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties){
+        // INSERT/UPDATE agrupados em lotes JDBC; os ids UUID são gerados na aplicação, o que não quebra o batching
+        hibernateProperties.put("hibernate.jdbc.batch_size", this.batchSize);
+        hibernateProperties.put("hibernate.order_inserts", true);
+        hibernateProperties.put("hibernate.order_updates", true);
+        hibernateProperties.put("hibernate.jdbc.batch_versioned_data", true);
+
+        // Contadores de queries, loads e flushes expostos no Micrometer (hibernate-micrometer)
+        hibernateProperties.putIfAbsent("hibernate.generate_statistics", true);
+
+        // O esquema é das migrations do Flyway; na subida o Hibernate só confere se as entidades batem com ele
+        hibernateProperties.putIfAbsent("hibernate.hbm2ddl.auto", "validate");
+    }
+}
@@ -0,0 +1,28 @@
+package com.kioshi.todolist.config;
+
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+// Lazy init seletivo: só os beans listados em app.startup.lazy-beans saem da subida.
+// Quem depende deles injeta com @Lazy; senão a dependência os criaria de qualquer forma
+@Configuration
+public class LazyBeansConfig {
+
+    private static final String DEFAULT_LAZY_BEANS = "mailSender,emailService,smtpConnectionPool";
+
+    // static: BeanFactoryPostProcessor precisa existir antes dos demais beans da configuração
+    @Bean
+    public static BeanFactoryPostProcessor lazyBeansPostProcessor(Environment environment){
+        String[] beanNames = environment.getProperty("app.startup.lazy-beans", String[].class, DEFAULT_LAZY_BEANS.split(","));
+
+        return beanFactory -> {
+            for(String beanName : beanNames){
+                if(beanFactory.containsBeanDefinition(beanName.trim())){
+                    beanFactory.getBeanDefinition(beanName.trim()).setLazyInit(true);
+                }
+            }
+        };
+    }
+}
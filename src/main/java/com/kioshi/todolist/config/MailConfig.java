@@ -0,0 +1,10 @@
+package com.kioshi.todolist.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+
+// Timeouts do SMTP com valores padrão fora do application.properties
+@Configuration
+@PropertySource("classpath:mail.properties")
+public class MailConfig {
+}
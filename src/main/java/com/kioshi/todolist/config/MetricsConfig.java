@@ -0,0 +1,12 @@
+package com.kioshi.todolist.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+
+// Endpoints, histogramas e tracing do Actuator com valores padrão fora do application.properties.
+// Hikari, Hibernate e http.server.requests são registrados pelo próprio Spring Boot;
+// os timers de JWT, hashing e SMTP ficam nas classes que eles medem
+@Configuration
+@PropertySource("classpath:metrics.properties")
+public class MetricsConfig {
+}
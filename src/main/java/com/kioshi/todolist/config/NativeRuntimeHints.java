@@ -0,0 +1,75 @@
+package com.kioshi.todolist.config;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+
+import net.ttddyy.dsproxy.proxy.ProxyJdbcObject;
+
+// Hints de reflexão para a imagem nativa (profile "native"). Roda no build AOT, na JVM,
+// então a varredura de pacotes abaixo acontece uma vez só e não existe no binário
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final MemberCategory[] BEAN_MEMBERS = {
+        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+        MemberCategory.INVOKE_DECLARED_METHODS,
+        MemberCategory.DECLARED_FIELDS
+    };
+
+    // java-jwt lê header e payload com Jackson via (de)serializers próprios, instanciados por reflexão
+    private static final List<String> JAVA_JWT_TYPES = List.of(
+        "com.auth0.jwt.impl.BasicHeader",
+        "com.auth0.jwt.impl.PayloadImpl",
+        "com.auth0.jwt.impl.HeaderDeserializer",
+        "com.auth0.jwt.impl.PayloadDeserializer",
+        "com.auth0.jwt.impl.HeaderSerializer",
+        "com.auth0.jwt.impl.PayloadSerializer",
+        "com.auth0.jwt.impl.ClaimsSerializer",
+        "com.auth0.jwt.impl.ClaimsHolder",
+        "com.auth0.jwt.impl.HeaderClaimsHolder",
+        "com.auth0.jwt.impl.PayloadClaimsHolder",
+        "com.auth0.jwt.impl.JsonNodeClaim"
+    );
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader){
+
+        // DTOs: Jackson nos controllers e construtores "SELECT new ...DTO(...)" nas queries JPQL
+        this.registerPackage(hints, "com.kioshi.todolist.dtos");
+        this.registerPackage(hints, "com.kioshi.todolist.entities");
+
+        JAVA_JWT_TYPES.forEach(type -> hints.reflection().registerType(TypeReference.of(type), BEAN_MEMBERS));
+
+        // Proxies JDK do datasource-proxy (SqlStatementCounter) e do LazyConnectionDataSourceProxy (réplica)
+        for(Class<?> jdbcType : List.of(DataSource.class, Connection.class, Statement.class, PreparedStatement.class, CallableStatement.class, ResultSet.class)){
+            hints.proxies().registerJdkProxy(ProxyJdbcObject.class, jdbcType);
+        }
+        hints.proxies().registerJdkProxy(ConnectionProxy.class);
+
+        // Carregados por @PropertySource em MetricsConfig e MailConfig
+        hints.resources().registerPattern("metrics.properties");
+        hints.resources().registerPattern("mail.properties");
+    }
+
+    private void registerPackage(RuntimeHints hints, String basePackage){
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter((metadataReader, metadataReaderFactory) -> true);
+
+        for(BeanDefinition candidate : scanner.findCandidateComponents(basePackage)){
+            hints.reflection().registerType(TypeReference.of(candidate.getBeanClassName()), BEAN_MEMBERS);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.kioshi.todolist.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import com.kioshi.todolist.security.UserPrincipal;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Abre a janela de read-your-writes em todo request autenticado que não seja GET/HEAD/OPTIONS.
+// Marca no início (leituras concorrentes do mesmo usuário já vão ao primário) e de novo no fim,
+// para a janela contar a partir do commit
+@Component
+@ConditionalOnProperty(name = "app.datasource.replica.url")
+public class ReadYourWritesInterceptor implements HandlerInterceptor {
+
+    @Autowired
+    private ReadYourWritesTracker readYourWritesTracker;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler){
+        this.mark(request);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex){
+        this.mark(request);
+    }
+
+    private void mark(HttpServletRequest request){
+        String method = request.getMethod();
+
+        if("GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method)){
+            return;
+        }
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        if(authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal){
+            this.readYourWritesTracker.markWrite(principal.id());
+        }
+    }
+}
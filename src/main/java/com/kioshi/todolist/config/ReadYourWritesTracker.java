@@ -0,0 +1,56 @@
+package com.kioshi.todolist.config;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.kioshi.todolist.security.UserPrincipal;
+
+import jakarta.annotation.PostConstruct;
+
+// Usuários que alteraram algo há menos de read-your-writes-ms continuam lendo do primário,
+// para não verem a réplica atrasada logo depois da própria escrita
+@Component
+@ConditionalOnProperty(name = "app.datasource.replica.url")
+public class ReadYourWritesTracker {
+
+    @Value("${app.datasource.replica.read-your-writes-ms:2000}")
+    private long windowMs;
+
+    @Value("${app.datasource.replica.read-your-writes-max-size:100000}")
+    private long maxSize;
+
+    private Cache<UUID, Boolean> recentWriters;
+
+    @PostConstruct
+    public void init(){
+        this.recentWriters = Caffeine.newBuilder()
+            .maximumSize(this.maxSize)
+            .expireAfterWrite(Duration.ofMillis(Math.max(1, this.windowMs)))
+            .build();
+    }
+
+    public void markWrite(UUID userId){
+        if(this.windowMs > 0){
+            this.recentWriters.put(userId, Boolean.TRUE);
+        }
+    }
+
+    // Usuário autenticado no request atual; jobs em background não têm janela e leem da réplica
+    public boolean currentUserRecentlyWrote(){
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        if(authentication == null || !(authentication.getPrincipal() instanceof UserPrincipal principal)){
+            return false;
+        }
+
+        return this.recentWriters.getIfPresent(principal.id()) != null;
+    }
+}
@@ -0,0 +1,64 @@
+package com.kioshi.todolist.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+// Só entra com app.datasource.replica.url definido; sem ele o Spring Boot monta o pool único de sempre.
+// Transações @Transactional(readOnly = true) vão para a réplica, todo o resto para o primário.
+// O proxy lazy só pega a conexão física depois que o Spring marcou a transação como read-only,
+// por isso a escolha do pool acontece com a flag já definida
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica.url")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties){
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+            .type(HikariDataSource.class)
+            .build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(
+        DataSourceProperties dataSourceProperties,
+        @Value("${app.datasource.replica.url}") String url,
+        @Value("${app.datasource.replica.username:${spring.datasource.username:}}") String username,
+        @Value("${app.datasource.replica.password:${spring.datasource.password:}}") String password
+    ){
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setDriverClassName(dataSourceProperties.determineDriverClassName());
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+        @Qualifier("primaryDataSource") HikariDataSource primaryDataSource,
+        @Qualifier("replicaDataSource") HikariDataSource replicaDataSource,
+        ReadYourWritesTracker readYourWritesTracker
+    ){
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource, readYourWritesTracker));
+        return dataSource;
+    }
+}
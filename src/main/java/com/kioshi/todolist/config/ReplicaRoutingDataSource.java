@@ -0,0 +1,28 @@
+package com.kioshi.todolist.config;
+
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+// DataSource das transações read-only: réplica, salvo quando o usuário do request escreveu há pouco
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final String PRIMARY = "primary";
+    private static final String REPLICA = "replica";
+
+    private final ReadYourWritesTracker readYourWritesTracker;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReadYourWritesTracker readYourWritesTracker){
+        this.readYourWritesTracker = readYourWritesTracker;
+        this.setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        this.setDefaultTargetDataSource(replica);
+        this.afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey(){
+        return this.readYourWritesTracker.currentUserRecentlyWrote() ? PRIMARY : REPLICA;
+    }
+}
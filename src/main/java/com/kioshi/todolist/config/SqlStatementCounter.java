@@ -0,0 +1,105 @@
+package com.kioshi.todolist.config;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+// Listener do datasource-proxy: conta todo statement executado no DataSource da aplicação.
+// Fora de request só o total global é atualizado; dentro de um, o SqlStatementFilter abre um RequestSqlStats por thread.
+@Component
+public class SqlStatementCounter implements QueryExecutionListener {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlStatementCounter.class);
+
+    @Value("${app.sql.slow-query-ms:200}")
+    private long slowQueryMs;
+
+    private final LongAdder totalStatements = new LongAdder();
+    private final ThreadLocal<RequestSqlStats> currentRequest = new ThreadLocal<>();
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList){
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList){
+        this.totalStatements.increment();
+
+        int binds = 0;
+        for(QueryInfo queryInfo : queryInfoList){
+            binds += queryInfo.getParametersList().size();
+        }
+
+        // Um execute pode levar várias queries (Statement.addBatch); a primeira identifica o statement
+        String sql = queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery();
+        long elapsedMs = execInfo.getElapsedTime();
+
+        RequestSqlStats stats = this.currentRequest.get();
+        if(stats != null){
+            stats.record(sql, binds, elapsedMs);
+        }
+
+        if(elapsedMs >= this.slowQueryMs){
+            log.warn("SQL lenta: {} ms, {} binds, batch={}: {}", elapsedMs, binds, execInfo.isBatch(), sql);
+        }
+    }
+
+    public void begin(){
+        this.currentRequest.set(new RequestSqlStats());
+    }
+
+    public RequestSqlStats end(){
+        RequestSqlStats stats = this.currentRequest.get();
+        this.currentRequest.remove();
+        return stats;
+    }
+
+    public long getTotalStatements(){
+        return this.totalStatements.sum();
+    }
+
+    // Estatísticas de um único request; só é tocado pela thread dele
+    public static class RequestSqlStats {
+
+        private int statements;
+        private int binds;
+        private long elapsedMs;
+        private final Map<String, Integer> executionsBySql = new HashMap<>();
+
+        void record(String sql, int binds, long elapsedMs){
+            this.statements++;
+            this.binds += binds;
+            this.elapsedMs += elapsedMs;
+            this.executionsBySql.merge(sql, 1, Integer::sum);
+        }
+
+        public int getStatements(){
+            return this.statements;
+        }
+
+        public int getBinds(){
+            return this.binds;
+        }
+
+        public long getElapsedMs(){
+            return this.elapsedMs;
+        }
+
+        // O mesmo SQL repetido muitas vezes no request é o sinal típico de N+1
+        public Map.Entry<String, Integer> getMostRepeated(){
+            return this.executionsBySql.entrySet().stream()
+                .max(Map.Entry.comparingByValue())
+                .orElse(null);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.kioshi.todolist.config;
+
+import java.io.IOException;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import com.kioshi.todolist.config.SqlStatementCounter.RequestSqlStats;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Primeiro filtro da cadeia: as queries do SecurityFilter também entram na conta do request.
+// Loga requests com statements demais ou com o mesmo SQL repetido (cara de N+1)
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SqlStatementFilter extends OncePerRequestFilter {
+
+    public static final String STATEMENTS_HEADER = "X-Sql-Statements";
+
+    private static final Logger log = LoggerFactory.getLogger(SqlStatementFilter.class);
+
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
+    @Value("${app.sql.request-statement-warn:20}")
+    private int requestStatementWarn;
+
+    @Value("${app.sql.n-plus-one-threshold:5}")
+    private int nPlusOneThreshold;
+
+    // Devolve a contagem no header X-Sql-Statements; usado pelos testes de orçamento de queries
+    @Value("${app.sql.statement-count-header:false}")
+    private boolean statementCountHeader;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException{
+
+        // O header precisa ser escrito depois da contagem, mas antes do corpo: só com o header ligado a resposta fica em buffer
+        ContentCachingResponseWrapper buffered = this.statementCountHeader ? new ContentCachingResponseWrapper(response) : null;
+        long start = System.nanoTime();
+
+        this.sqlStatementCounter.begin();
+        try{
+            filterChain.doFilter(request, buffered != null ? buffered : response);
+        }finally{
+            RequestSqlStats stats = this.sqlStatementCounter.end();
+
+            if(buffered != null){
+                buffered.setHeader(STATEMENTS_HEADER, String.valueOf(stats.getStatements()));
+                buffered.copyBodyToResponse();
+            }
+
+            this.report(request, stats, (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    private void report(HttpServletRequest request, RequestSqlStats stats, long requestMs){
+        Map.Entry<String, Integer> mostRepeated = stats.getMostRepeated();
+        // Limites <= 0 desligam o aviso correspondente
+        boolean tooMany = this.requestStatementWarn > 0 && stats.getStatements() >= this.requestStatementWarn;
+        boolean repeated = this.nPlusOneThreshold > 0 && mostRepeated != null && mostRepeated.getValue() >= this.nPlusOneThreshold;
+
+        if(!tooMany && !repeated){
+            return;
+        }
+
+        log.warn(
+            "{} {}: {} statements ({} binds, {} ms em SQL, {} ms no request); repetido {}x: {}",
+            request.getMethod(),
+            request.getRequestURI(),
+            stats.getStatements(),
+            stats.getBinds(),
+            stats.getElapsedMs(),
+            requestMs,
+            mostRepeated == null ? 0 : mostRepeated.getValue(),
+            mostRepeated == null ? "-" : mostRepeated.getKey()
+        );
+    }
+}
@@ -0,0 +1,64 @@
+package com.kioshi.todolist.config;
+
+import java.time.Duration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+
+/*
+ * Loga quando uma virtual thread fica presa ao carrier (synchronized ou código nativo
+ * segurando I/O bloqueante), o que anula o ganho do modo virtual. Útil para achar trechos
+ * synchronized no driver JDBC, no Hikari ou no JavaMail.
+ */
+@Component
+@ConditionalOnProperty(name = "app.threads.pinning-monitor.enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    @Value("${app.threads.pinning-monitor.threshold-ms:20}")
+    private long thresholdMs;
+
+    private RecordingStream recordingStream;
+
+    @PostConstruct
+    public void start(){
+        this.recordingStream = new RecordingStream();
+        this.recordingStream.enable("jdk.VirtualThreadPinned")
+            .withThreshold(Duration.ofMillis(this.thresholdMs))
+            .withStackTrace();
+        this.recordingStream.onEvent("jdk.VirtualThreadPinned", this::logPinnedThread);
+        this.recordingStream.startAsync();
+    }
+
+    @PreDestroy
+    public void stop(){
+        this.recordingStream.close();
+    }
+
+    private void logPinnedThread(RecordedEvent event){
+        StringBuilder frames = new StringBuilder();
+
+        if(event.getStackTrace() != null){
+            for(RecordedFrame frame : event.getStackTrace().getFrames().stream().limit(8).toList()){
+                frames.append("\n\tat ")
+                    .append(frame.getMethod().getType().getName())
+                    .append('.')
+                    .append(frame.getMethod().getName())
+                    .append(':')
+                    .append(frame.getLineNumber());
+            }
+        }
+
+        log.warn("Virtual thread presa ao carrier por {} ms{}", event.getDuration().toMillis(), frames);
+    }
+}
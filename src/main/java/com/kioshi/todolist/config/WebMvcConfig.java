@@ -0,0 +1,33 @@
+package com.kioshi.todolist.config;
+
+import java.util.List;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.kioshi.todolist.security.AuthenticatedUserIdArgumentResolver;
+
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private AuthenticatedUserIdArgumentResolver authenticatedUserIdArgumentResolver;
+
+    // Só existe com réplica configurada
+    @Autowired
+    private ObjectProvider<ReadYourWritesInterceptor> readYourWritesInterceptor;
+
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers){
+        resolvers.add(this.authenticatedUserIdArgumentResolver);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry){
+        this.readYourWritesInterceptor.ifAvailable(registry::addInterceptor);
+    }
+}
@@ -1,8 +1,10 @@
 package com.kioshi.todolist.controllers;
 
+import java.util.List;
 import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -11,23 +13,34 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import com.kioshi.todolist.dtos.task.BatchTasksResponseDTO;
+import com.kioshi.todolist.dtos.task.CompleteTasksRequestDTO;
 import com.kioshi.todolist.dtos.task.CreateTaskRequestDTO;
 import com.kioshi.todolist.dtos.task.CreateTaskResponseDTO;
 import com.kioshi.todolist.dtos.task.DeleteAllTasksRequestDTO;
 import com.kioshi.todolist.dtos.task.DeleteAllTasksResponseDTO;
 import com.kioshi.todolist.dtos.task.DeleteTaskRequestDTO;
 import com.kioshi.todolist.dtos.task.DeleteTaskResponseDTO;
+import com.kioshi.todolist.dtos.task.GetTasksPageRequestDTO;
+import com.kioshi.todolist.dtos.task.GetTasksPageResponseDTO;
 import com.kioshi.todolist.dtos.task.GetTasksRequestDTO;
 import com.kioshi.todolist.dtos.task.GetTasksResponseDTO;
+import com.kioshi.todolist.dtos.task.SearchTasksRequestDTO;
+import com.kioshi.todolist.dtos.task.SearchTasksResponseDTO;
 import com.kioshi.todolist.dtos.task.UpdateTaskRequestDTO;
 import com.kioshi.todolist.dtos.task.UpdateTaskResponseDTO;
-import com.kioshi.todolist.exceptions.auth.JWTInvalidTokenException;
+import com.kioshi.todolist.security.AuthenticatedUserId;
+import com.kioshi.todolist.services.TaskListVersionService;
 import com.kioshi.todolist.services.TaskService;
+import com.kioshi.todolist.services.TaskService.VersionedTasks;
+import com.kioshi.todolist.utils.ETagUtil;
 
-import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 @RestController
@@ -37,73 +50,113 @@ public class TaskController {
     @Autowired
     private TaskService taskService;
 
-    // CREATE TASK
-    @PostMapping("/create") 
-    public ResponseEntity<CreateTaskResponseDTO> createTask(@Valid @RequestBody CreateTaskRequestDTO createTaskRequestDTO, HttpServletRequest request){
-        Object idObject = request.getAttribute("user_id");
-        if(idObject == null){
-            throw new JWTInvalidTokenException();
-        }
+    @Autowired
+    private ETagUtil eTagUtil;
 
-        UUID id = UUID.fromString(idObject.toString());
+    @Autowired
+    private TaskListVersionService taskListVersionService;
 
+    // CREATE TASK
+    @PostMapping("/create") 
+    public ResponseEntity<CreateTaskResponseDTO> createTask(@Valid @RequestBody CreateTaskRequestDTO createTaskRequestDTO, @AuthenticatedUserId UUID id){
         CreateTaskResponseDTO response = this.taskService.create(createTaskRequestDTO, id);
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        return ResponseEntity.status(HttpStatus.CREATED).eTag(this.eTagUtil.toETag(response.getVersion())).body(response);
     }
 
 
-    // GET ALL TASKS
+    // GET ALL TASKS (If-None-Match com o ETag da última resposta devolve 304 sem tocar na tabela de tasks)
     @GetMapping("/all")
-    public ResponseEntity<GetTasksResponseDTO> getTasks(HttpServletRequest request){
-        Object idObject = request.getAttribute("user_id");
-        if(idObject == null){
-            throw new JWTInvalidTokenException();
+    public ResponseEntity<GetTasksResponseDTO> getTasks(@AuthenticatedUserId UUID userId, WebRequest webRequest){
+        // 304 pela versão do primário (em cache); só ela decide se a cópia do cliente ainda vale
+        String currentETag = this.eTagUtil.toListETag(this.taskListVersionService.currentVersion(userId));
+
+        if(webRequest.checkNotModified(currentETag)){
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(currentETag).build();
         }
 
-        UUID UserId = UUID.fromString(idObject.toString());
+        // O ETag do 200 vem do mesmo snapshot da lista: numa réplica atrasada ele é o antigo, e o próximo poll traz a nova
+        VersionedTasks versioned = this.taskService.getTasksWithVersion(new GetTasksRequestDTO(userId));
+        return ResponseEntity.status(HttpStatus.OK)
+            .eTag(this.eTagUtil.toListETag(versioned.tasksVersion()))
+            .body(versioned.response());
+    }
+
 
-        GetTasksResponseDTO response = this.taskService.getTasks(new GetTasksRequestDTO(UserId));
+    // GET TASKS (PAGINADO POR CURSOR)
+    @GetMapping("/page")
+    public ResponseEntity<GetTasksPageResponseDTO> getTasksPage(
+        @RequestParam(required = false) String cursor,
+        @RequestParam(required = false) Integer size,
+        @RequestParam(required = false) Boolean completed,
+        @AuthenticatedUserId UUID userId
+    ){
+        GetTasksPageResponseDTO response = this.taskService.getTasksPage(new GetTasksPageRequestDTO(userId, cursor, size, completed));
         return ResponseEntity.status(HttpStatus.OK).body(response);
     }
 
 
-    // DELETE TASK
-    @DeleteMapping("/delete/{id}")
-    public ResponseEntity<DeleteTaskResponseDTO> deleteTask(@PathVariable UUID id, HttpServletRequest request){
-
-        Object idObject = request.getAttribute("user_id");
-        if(idObject == null){
-            throw new JWTInvalidTokenException();
-        }
+    // SEARCH TASKS (full-text ranqueado, com prefixo e tolerância a erro de digitação no nome)
+    @GetMapping("/search")
+    public ResponseEntity<SearchTasksResponseDTO> searchTasks(
+        @RequestParam("q") String query,
+        @RequestParam(required = false) Integer page,
+        @RequestParam(required = false) Integer size,
+        @AuthenticatedUserId UUID userId
+    ){
+        SearchTasksResponseDTO response = this.taskService.search(new SearchTasksRequestDTO(userId, query, page, size));
+        return ResponseEntity.status(HttpStatus.OK).body(response);
+    }
 
-        UUID UserId = UUID.fromString(idObject.toString());
 
-        DeleteTaskResponseDTO response = this.taskService.deleteTask(new DeleteTaskRequestDTO(UserId, id));
+    // DELETE TASK
+    @DeleteMapping("/delete/{id}")
+    public ResponseEntity<DeleteTaskResponseDTO> deleteTask(@PathVariable UUID id, @AuthenticatedUserId UUID userId){
+        DeleteTaskResponseDTO response = this.taskService.deleteTask(new DeleteTaskRequestDTO(userId, id));
         return ResponseEntity.status(HttpStatus.OK).body(response);
     }
 
 
     // DELETE ALL TASKS FROM USER
     @DeleteMapping("/deleteAll")
-    public ResponseEntity<DeleteAllTasksResponseDTO> deleteAllTasks(HttpServletRequest request){
-
-        Object idObject = request.getAttribute("user_id");
-        if(idObject == null){
-            throw new JWTInvalidTokenException();
-        }
-
-        UUID userId = UUID.fromString(idObject.toString());
-
+    public ResponseEntity<DeleteAllTasksResponseDTO> deleteAllTasks(@AuthenticatedUserId UUID userId){
         DeleteAllTasksResponseDTO response = this.taskService.deleteAllTasks(new DeleteAllTasksRequestDTO(userId));
         return ResponseEntity.status(HttpStatus.OK).body(response);
     }
 
     
-    //UPDATE TASK
+    //UPDATE TASK (If-Match opcional: com ele, só atualiza se a versão ainda for a mesma, senão 412)
     @PatchMapping("/update")
-    public ResponseEntity<UpdateTaskResponseDTO> updateTask(@Valid @RequestBody UpdateTaskRequestDTO updateTaskRequestDTO){
-        UpdateTaskResponseDTO response = this.taskService.update(updateTaskRequestDTO);
+    public ResponseEntity<UpdateTaskResponseDTO> updateTask(
+        @Valid @RequestBody UpdateTaskRequestDTO updateTaskRequestDTO,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+        @AuthenticatedUserId UUID userId
+    ){
+        UpdateTaskResponseDTO response = this.taskService.update(updateTaskRequestDTO, userId, this.eTagUtil.parseIfMatch(ifMatch));
+        return ResponseEntity.status(HttpStatus.OK).eTag(this.eTagUtil.toETag(response.getVersion())).body(response);
+    }
+
+
+    // BATCH CREATE
+    @PostMapping("/batch/create")
+    public ResponseEntity<BatchTasksResponseDTO> createTasksBatch(@RequestBody List<CreateTaskRequestDTO> createTaskRequestDTOs, @AuthenticatedUserId UUID userId){
+        BatchTasksResponseDTO response = this.taskService.createBatch(createTaskRequestDTOs, userId);
         return ResponseEntity.status(HttpStatus.OK).body(response);
     }
-    
+
+
+    // BATCH UPDATE
+    @PatchMapping("/batch/update")
+    public ResponseEntity<BatchTasksResponseDTO> updateTasksBatch(@RequestBody List<UpdateTaskRequestDTO> updateTaskRequestDTOs, @AuthenticatedUserId UUID userId){
+        BatchTasksResponseDTO response = this.taskService.updateBatch(updateTaskRequestDTOs, userId);
+        return ResponseEntity.status(HttpStatus.OK).body(response);
+    }
+
+
+    // BATCH COMPLETE
+    @PatchMapping("/batch/complete")
+    public ResponseEntity<BatchTasksResponseDTO> completeTasksBatch(@Valid @RequestBody CompleteTasksRequestDTO completeTasksRequestDTO, @AuthenticatedUserId UUID userId){
+        BatchTasksResponseDTO response = this.taskService.completeBatch(completeTasksRequestDTO, userId);
+        return ResponseEntity.status(HttpStatus.OK).body(response);
+    }
+
 }
@@ -5,6 +5,7 @@ import java.util.UUID;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -22,6 +23,8 @@ import com.kioshi.todolist.dtos.user.GetProfileRequestDTO;
 import com.kioshi.todolist.dtos.user.GetProfileResponseDTO;
 import com.kioshi.todolist.dtos.user.LoginUserRequestDTO;
 import com.kioshi.todolist.dtos.user.LoginUserResponseDTO;
+import com.kioshi.todolist.dtos.user.RefreshTokenRequestDTO;
+import com.kioshi.todolist.dtos.user.RefreshTokenResponseDTO;
 import com.kioshi.todolist.dtos.user.ResetPasswordRequestDTO;
 import com.kioshi.todolist.dtos.user.SendVerificationCodeRequestDTO;
 import com.kioshi.todolist.dtos.user.SendVerificationCodeResponseDTO;
@@ -29,11 +32,10 @@ import com.kioshi.todolist.dtos.user.UpdateUserRequestDTO;
 import com.kioshi.todolist.dtos.user.UpdateUserResponseDTO;
 import com.kioshi.todolist.dtos.user.VerifyAccountRequestDTO;
 import com.kioshi.todolist.dtos.user.VerifyAccountResponseDTO;
-import com.kioshi.todolist.exceptions.auth.JWTInvalidTokenException;
+import com.kioshi.todolist.security.AuthenticatedUserId;
+import com.kioshi.todolist.security.UserPrincipal;
 import com.kioshi.todolist.services.UserService;
 
-import jakarta.mail.MessagingException;
-import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 @RestController
@@ -58,91 +60,57 @@ public class UserController {
     }
 
 
-    @GetMapping("/profile")
-    public ResponseEntity<GetProfileResponseDTO> getProfileUser(HttpServletRequest request){
-        Object idObject = request.getAttribute("user_id");
+    @PostMapping("/refresh")
+    public ResponseEntity<RefreshTokenResponseDTO> refreshToken(@Valid @RequestBody RefreshTokenRequestDTO refreshTokenRequestDTO){
+        RefreshTokenResponseDTO response = this.userService.refresh(refreshTokenRequestDTO);
+        return ResponseEntity.status(HttpStatus.OK).body(response);
+    }
 
-        if(idObject == null){
-            throw new JWTInvalidTokenException();
-        }
 
-        UUID id = UUID.fromString(idObject.toString());
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestBody(required = false) RefreshTokenRequestDTO refreshTokenRequestDTO, @AuthenticationPrincipal UserPrincipal principal){
+        this.userService.logout(principal, refreshTokenRequestDTO);
+        return ResponseEntity.noContent().build();
+    }
+
 
+    @GetMapping("/profile")
+    public ResponseEntity<GetProfileResponseDTO> getProfileUser(@AuthenticatedUserId UUID id){
         GetProfileResponseDTO response = this.userService.getProfile(new GetProfileRequestDTO(id));
         return ResponseEntity.status(HttpStatus.OK).body(response);
     }
 
 
     @DeleteMapping("/delete")
-    public ResponseEntity<DeleteUserResponseDTO> deleteUser(HttpServletRequest request){
-        Object idObject = request.getAttribute("user_id");
-
-        if(idObject == null){
-            throw new JWTInvalidTokenException();
-        }
-
-        UUID id = UUID.fromString(idObject.toString());
-
+    public ResponseEntity<DeleteUserResponseDTO> deleteUser(@AuthenticatedUserId UUID id){
         DeleteUserResponseDTO response = this.userService.delete(new DeleteUserRequestDTO(id));
         return ResponseEntity.status(HttpStatus.OK).body(response);
     }
 
 
     @PatchMapping("/update")
-    public ResponseEntity<UpdateUserResponseDTO> updateUser(@Valid @RequestBody UpdateUserRequestDTO updateUserRequestDTO, HttpServletRequest request){
-        Object idObject = request.getAttribute("user_id");
-
-        if(idObject == null){
-            throw new JWTInvalidTokenException();
-        }
-
-        UUID id = UUID.fromString(idObject.toString());
-
+    public ResponseEntity<UpdateUserResponseDTO> updateUser(@Valid @RequestBody UpdateUserRequestDTO updateUserRequestDTO, @AuthenticatedUserId UUID id){
         UpdateUserResponseDTO response = this.userService.update(id, updateUserRequestDTO);
         return ResponseEntity.status(HttpStatus.OK).body(response);
     }
 
 
     @PostMapping("/send-verification-code")
-    public ResponseEntity<SendVerificationCodeResponseDTO> sendVerificationCode(HttpServletRequest request) throws MessagingException{
-        Object idObject = request.getAttribute("user_id");
-
-        if(idObject == null){
-            throw new JWTInvalidTokenException();
-        }
-
-        UUID id = UUID.fromString(idObject.toString());
-
+    public ResponseEntity<SendVerificationCodeResponseDTO> sendVerificationCode(@AuthenticatedUserId UUID id){
         SendVerificationCodeResponseDTO response = this.userService.sendVerificationCode(new SendVerificationCodeRequestDTO(id));
         return ResponseEntity.status(HttpStatus.OK).body(response);
     }
 
 
     @PostMapping("/verify-account")
-    public ResponseEntity<VerifyAccountResponseDTO> verifyAccount(@RequestBody VerifyAccountRequestDTO verifyAccountRequestDTO, HttpServletRequest request) throws MessagingException{
-        Object idObject = request.getAttribute("user_id");
-
-        if(idObject == null){
-            throw new JWTInvalidTokenException();
-        }
-
-        UUID id = UUID.fromString(idObject.toString());
-
+    public ResponseEntity<VerifyAccountResponseDTO> verifyAccount(@RequestBody VerifyAccountRequestDTO verifyAccountRequestDTO, @AuthenticatedUserId UUID id){
         VerifyAccountResponseDTO response = this.userService.verifyAccount(id, verifyAccountRequestDTO);
         return ResponseEntity.status(HttpStatus.OK).body(response);
     }
 
 
     @PostMapping("/change-password")
-    public ResponseEntity<Void> changePassword(@Valid @RequestBody ChangePasswordRequestDTO changePasswordRequestDTO, HttpServletRequest request){
-        Object idObject = request.getAttribute("user_id");
-
-        if(idObject == null){
-            throw new JWTInvalidTokenException();
-        }
-
-        UUID id = UUID.fromString(idObject.toString());
-
+    public ResponseEntity<Void> changePassword(@Valid @RequestBody ChangePasswordRequestDTO changePasswordRequestDTO, @AuthenticatedUserId UUID id){
         this.userService.changePassword(id, changePasswordRequestDTO);
         return ResponseEntity.noContent().build();
     }
@@ -0,0 +1,20 @@
+package com.kioshi.todolist.dtos.task;
+
+import java.util.UUID;
+
+import com.kioshi.todolist.enums.BatchItemStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchTaskResultDTO {
+
+    private Integer index;
+    private UUID id;
+    private BatchItemStatus status;
+    private String message;
+}
@@ -0,0 +1,17 @@
+package com.kioshi.todolist.dtos.task;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchTasksResponseDTO {
+
+    private Integer succeeded;
+    private Integer failed;
+    private List<BatchTaskResultDTO> results;
+}
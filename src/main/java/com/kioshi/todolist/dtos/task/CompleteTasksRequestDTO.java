@@ -0,0 +1,18 @@
+package com.kioshi.todolist.dtos.task;
+
+import java.util.List;
+import java.util.UUID;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CompleteTasksRequestDTO {
+
+    @NotEmpty(message = "A lista de tasks é obrigatória")
+    private List<UUID> ids;
+}
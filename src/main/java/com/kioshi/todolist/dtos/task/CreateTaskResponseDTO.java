@@ -12,4 +12,5 @@ public class CreateTaskResponseDTO {
     private String name;
     private String content;
     private UUID userId;   
+    private Long version;
 }
@@ -10,4 +10,5 @@ import lombok.NoArgsConstructor;
 public class DeleteAllTasksResponseDTO {
     
     private Boolean deleted;
+    private Integer deletedCount;
 }
@@ -0,0 +1,18 @@
+package com.kioshi.todolist.dtos.task;
+
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class GetTasksPageRequestDTO {
+
+    private UUID userId;
+    private String cursor;
+    private Integer size;
+    private Boolean completed;
+}
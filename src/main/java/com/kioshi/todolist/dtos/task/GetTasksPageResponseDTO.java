@@ -0,0 +1,16 @@
+package com.kioshi.todolist.dtos.task;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class GetTasksPageResponseDTO {
+
+    private List<TaskResponseDTO> tasks;
+    private String nextCursor;
+}
@@ -2,8 +2,6 @@ package com.kioshi.todolist.dtos.task;
 
 import java.util.List;
 
-import com.kioshi.todolist.entities.TaskEntity;
-
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -13,5 +11,5 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 public class GetTasksResponseDTO {
     
-    private List<TaskEntity> tasks;
+    private List<TaskResponseDTO> tasks;
 }
@@ -0,0 +1,18 @@
+package com.kioshi.todolist.dtos.task;
+
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SearchTasksRequestDTO {
+
+    private UUID userId;
+    private String query;
+    private Integer page;
+    private Integer size;
+}
@@ -0,0 +1,21 @@
+package com.kioshi.todolist.dtos.task;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TaskResponseDTO {
+
+    private UUID id;
+    private String name;
+    private String content;
+    private Boolean completed;
+    private LocalDateTime createdAt;
+    private Long version;
+}
@@ -2,6 +2,8 @@ package com.kioshi.todolist.dtos.task;
 
 import java.util.UUID;
 
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -11,9 +13,15 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 public class UpdateTaskRequestDTO {
     
+    @NotNull(message = "O id da task é obrigatório")
     private UUID id;
 
+    // Opcional (nulo mantém o nome atual), mas não pode virar vazio
+    @Pattern(regexp = "(?s).*\\S.*", message = "O nome não pode ser vazio")
     private String name;
     private String content;
     private Boolean completed;
+
+    // Versão esperada da task, só em /batch/update; no PATCH /update ela vem no If-Match
+    private Long version;
 }
@@ -16,4 +16,5 @@ public class UpdateTaskResponseDTO {
     private String name;
     private String content;
     private Boolean completed;
+    private Long version;
 }
@@ -10,4 +10,7 @@ import lombok.NoArgsConstructor;
 public class DeleteUserResponseDTO {
     
     private Boolean deleted;
+
+    // true quando as tasks ainda estão sendo removidas em segundo plano
+    private Boolean pending;
 }
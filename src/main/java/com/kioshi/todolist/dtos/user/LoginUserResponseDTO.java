@@ -23,4 +23,5 @@ public class LoginUserResponseDTO {
     private LocalDateTime createdAt;
     private Permission permission;
     private Boolean verified;
+    private String refreshToken;
 }
@@ -0,0 +1,14 @@
+package com.kioshi.todolist.dtos.user;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RefreshTokenResponseDTO {
+
+    private String token;
+    private String refreshToken;
+}
@@ -0,0 +1,53 @@
+package com.kioshi.todolist.entities;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.hibernate.annotations.CreationTimestamp;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity(name = "refresh_tokens")
+@Table(name = "refresh_tokens", indexes = {
+    @Index(name = "ux_refresh_tokens_hash", columnList = "token_hash", unique = true),
+    @Index(name = "idx_refresh_tokens_user", columnList = "user_id"),
+    @Index(name = "idx_refresh_tokens_family", columnList = "family_id")
+})
+public class RefreshTokenEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(nullable = false)
+    private UUID userId;
+
+    @Column(nullable = false)
+    private UUID familyId;
+
+    @Column(nullable = false, length = 64)
+    private String tokenHash;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    private LocalDateTime revokedAt;
+    private UUID replacedBy;
+
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+}
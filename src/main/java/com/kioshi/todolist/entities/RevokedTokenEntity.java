@@ -0,0 +1,34 @@
+package com.kioshi.todolist.entities;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity(name = "revoked_tokens")
+@Table(name = "revoked_tokens", indexes = {
+    @Index(name = "idx_revoked_tokens_revoked_at", columnList = "revoked_at")
+})
+public class RevokedTokenEntity {
+
+    @Id
+    private UUID tokenId;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(nullable = false)
+    private LocalDateTime revokedAt;
+}
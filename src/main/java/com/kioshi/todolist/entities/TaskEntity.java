@@ -4,23 +4,51 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
 
+import com.kioshi.todolist.dtos.task.TaskResponseDTO;
+
+import jakarta.persistence.ColumnResult;
+import jakarta.persistence.ConstructorResult;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SqlResultSetMapping;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 @Data
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity(name = "tasks")
+@Table(name = "tasks", indexes = {
+    @Index(name = "idx_tasks_user_created_id", columnList = "user_id, created_at, id")
+})
+// Linhas de queries nativas (busca) direto no DTO de leitura, com os tipos de cada coluna explícitos
+@SqlResultSetMapping(name = "TaskResponse", classes = @ConstructorResult(
+    targetClass = TaskResponseDTO.class,
+    columns = {
+        @ColumnResult(name = "id", type = UUID.class),
+        @ColumnResult(name = "name", type = String.class),
+        @ColumnResult(name = "content", type = String.class),
+        @ColumnResult(name = "completed", type = Boolean.class),
+        @ColumnResult(name = "created_at", type = LocalDateTime.class),
+        @ColumnResult(name = "version", type = Long.class)
+    }
+))
 public class TaskEntity {
 
     @Id
@@ -31,10 +59,17 @@ public class TaskEntity {
     private String content;
     private Boolean completed;
 
-    @ManyToOne()
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private UserEntity userEntity;
 
     @CreationTimestamp
     private LocalDateTime createdAt;
+
+    // Sem valor inicial: versão nula é o que o Spring Data usa para saber que a task é nova (persist, não merge)
+    @Version
+    private Long version;
 }
@@ -4,15 +4,19 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 
 import com.kioshi.todolist.enums.Permission;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -22,7 +26,13 @@ import lombok.NoArgsConstructor;
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
+// UPDATE só com as colunas alteradas: o save() de um request não regrava a senha lida antes de uma troca concorrente
+@DynamicUpdate
 @Entity(name = "users")
+@Table(name = "users", indexes = {
+    @Index(name = "ux_users_email", columnList = "email", unique = true),
+    @Index(name = "ux_users_username", columnList = "username", unique = true)
+})
 public class UserEntity {
     
     @Id
@@ -40,6 +50,23 @@ public class UserEntity {
     @Enumerated(EnumType.STRING)
     private Permission permission;
 
+    // Vai no claim "ver" dos JWTs; incrementar invalida todos os tokens já emitidos.
+    // Só muda pelo UPDATE atômico da troca de senha: um save() concorrente não pode trazer a versão antiga de volta
+    @Builder.Default
+    @Column(nullable = false, updatable = false)
+    private Integer tokenVersion = 0;
+
+    // Incrementada a cada alteração nas tasks do usuário (ETag de GET /api/v1/task/all).
+    // Fora do UPDATE da entidade: um save() de quem carregou o usuário antes desfaria o incremento concorrente
+    @Builder.Default
+    @Column(nullable = false, updatable = false)
+    private Long tasksVersion = 0L;
+
+    // Preenchida quando a exclusão da conta vai para o expurgo em segundo plano; renovada a cada lote apagado.
+    // Só muda por markDeletionPending/touchDeletionPending: um save() não pode desbloquear a conta
+    @Column(updatable = false)
+    private LocalDateTime deletionPendingAt;
+
     @CreationTimestamp
     private LocalDateTime createdAt;
 }
@@ -0,0 +1,10 @@
+package com.kioshi.todolist.enums;
+
+public enum BatchItemStatus {
+    CREATED,
+    UPDATED,
+    COMPLETED,
+    NOT_FOUND,
+    CONFLICT,
+    INVALID
+}
@@ -0,0 +1,8 @@
+package com.kioshi.todolist.enums;
+
+public enum EmailOutboxStatus {
+    PENDING,
+    SENDING,
+    SENT,
+    FAILED
+}
@@ -6,14 +6,23 @@ import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
+import com.kioshi.todolist.exceptions.auth.InvalidRefreshTokenException;
 import com.kioshi.todolist.exceptions.auth.JWTInvalidTokenException;
+import com.kioshi.todolist.exceptions.auth.PasswordHashingBusyException;
+import com.kioshi.todolist.exceptions.auth.TooManyRequestsException;
+import com.kioshi.todolist.exceptions.task.BatchTooLargeException;
+import com.kioshi.todolist.exceptions.task.InvalidSearchQueryException;
+import com.kioshi.todolist.exceptions.task.InvalidTaskCursorException;
 import com.kioshi.todolist.exceptions.task.TaskNotFoundException;
+import com.kioshi.todolist.exceptions.task.TaskVersionConflictException;
 import com.kioshi.todolist.exceptions.user.InvalidCredentialsException;
 import com.kioshi.todolist.exceptions.user.InvalidVerificationCodeException;
 import com.kioshi.todolist.exceptions.user.UserAlreadyExistsException;
@@ -59,13 +68,58 @@ public class ExceptionHandlerController {
         return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(e.getMessage());
     }
 
+    @ExceptionHandler(InvalidRefreshTokenException.class)
+    public ResponseEntity<String> handleInvalidRefreshToken(InvalidRefreshTokenException e){
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(e.getMessage());
+    }
+
     @ExceptionHandler(TaskNotFoundException.class)
     public ResponseEntity<String> handleTaskNotFound(TaskNotFoundException e){
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
     }
 
+    @ExceptionHandler(TaskVersionConflictException.class)
+    public ResponseEntity<String> handleTaskVersionConflict(TaskVersionConflictException e){
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(e.getMessage());
+    }
+
+    // @Version no flush: outra requisição alterou uma task carregada (ex.: /batch/update) antes do commit
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<String> handleOptimisticLockingFailure(ObjectOptimisticLockingFailureException e){
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(new TaskVersionConflictException().getMessage());
+    }
+
     @ExceptionHandler(InvalidVerificationCodeException.class)
     public ResponseEntity<String> handleInvalidVerificationCode(InvalidVerificationCodeException e){
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
     }
+
+    @ExceptionHandler(InvalidTaskCursorException.class)
+    public ResponseEntity<String> handleInvalidTaskCursor(InvalidTaskCursorException e){
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+    }
+
+    @ExceptionHandler(InvalidSearchQueryException.class)
+    public ResponseEntity<String> handleInvalidSearchQuery(InvalidSearchQueryException e){
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+    }
+
+    @ExceptionHandler(BatchTooLargeException.class)
+    public ResponseEntity<String> handleBatchTooLarge(BatchTooLargeException e){
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+    }
+
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<String> handleTooManyRequests(TooManyRequestsException e){
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+            .body(e.getMessage());
+    }
+
+    @ExceptionHandler(PasswordHashingBusyException.class)
+    public ResponseEntity<String> handlePasswordHashingBusy(PasswordHashingBusyException e){
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, "1")
+            .body(e.getMessage());
+    }
 }
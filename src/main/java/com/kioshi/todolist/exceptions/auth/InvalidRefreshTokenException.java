@@ -0,0 +1,7 @@
+package com.kioshi.todolist.exceptions.auth;
+
+public class InvalidRefreshTokenException extends RuntimeException {
+    public InvalidRefreshTokenException() {
+        super("Refresh token inválido ou expirado");
+    }
+}
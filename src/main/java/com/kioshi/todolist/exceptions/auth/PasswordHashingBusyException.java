@@ -0,0 +1,7 @@
+package com.kioshi.todolist.exceptions.auth;
+
+public class PasswordHashingBusyException extends RuntimeException {
+    public PasswordHashingBusyException() {
+        super("Servidor ocupado. Tente novamente em instantes");
+    }
+}
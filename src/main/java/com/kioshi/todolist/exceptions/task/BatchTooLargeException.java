@@ -0,0 +1,7 @@
+package com.kioshi.todolist.exceptions.task;
+
+public class BatchTooLargeException extends RuntimeException {
+    public BatchTooLargeException(int maxSize){
+        super("O lote deve conter entre 1 e " + maxSize + " tasks");
+    }
+}
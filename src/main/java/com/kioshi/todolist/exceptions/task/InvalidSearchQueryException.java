@@ -0,0 +1,11 @@
+package com.kioshi.todolist.exceptions.task;
+
+public class InvalidSearchQueryException extends RuntimeException {
+    public InvalidSearchQueryException(){
+        super("Termo de busca inválido");
+    }
+
+    public InvalidSearchQueryException(long maxOffset){
+        super("A busca só pagina até o resultado " + maxOffset + ". Refine o termo de busca");
+    }
+}
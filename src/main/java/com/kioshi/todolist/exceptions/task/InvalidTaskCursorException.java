@@ -0,0 +1,7 @@
+package com.kioshi.todolist.exceptions.task;
+
+public class InvalidTaskCursorException extends RuntimeException {
+    public InvalidTaskCursorException(){
+        super("Cursor de paginação inválido");
+    }
+}
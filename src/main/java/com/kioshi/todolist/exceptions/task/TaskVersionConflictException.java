@@ -0,0 +1,7 @@
+package com.kioshi.todolist.exceptions.task;
+
+public class TaskVersionConflictException extends RuntimeException {
+    public TaskVersionConflictException() {
+        super("A task foi alterada por outra requisição. Recarregue e tente novamente");
+    }
+}
@@ -0,0 +1,34 @@
+package com.kioshi.todolist.repositories;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.kioshi.todolist.entities.EmailOutboxEntity;
+
+public interface EmailOutboxRepository extends JpaRepository<EmailOutboxEntity, UUID>{
+
+    // SKIP LOCKED deixa várias instâncias despachando em paralelo sem pegar o mesmo e-mail
+    @Query(value = """
+        SELECT * FROM email_outbox
+        WHERE status IN ('PENDING', 'SENDING')
+        AND next_attempt_at <= :now
+        ORDER BY next_attempt_at
+        LIMIT :limit
+        FOR UPDATE SKIP LOCKED
+        """, nativeQuery = true)
+    List<EmailOutboxEntity> lockNextBatch(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("""
+        UPDATE email_outbox e
+        SET e.status = com.kioshi.todolist.enums.EmailOutboxStatus.SENT, e.sentAt = :sentAt, e.lastError = null
+        WHERE e.id IN :ids
+        """)
+    int markSent(@Param("ids") List<UUID> ids, @Param("sentAt") LocalDateTime sentAt);
+}
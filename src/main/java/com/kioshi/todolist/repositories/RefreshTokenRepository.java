@@ -0,0 +1,40 @@
+package com.kioshi.todolist.repositories;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.kioshi.todolist.entities.RefreshTokenEntity;
+
+import jakarta.transaction.Transactional;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshTokenEntity, UUID>{
+
+    Optional<RefreshTokenEntity> findByTokenHash(String tokenHash);
+
+    // Condicional: só um dos refreshes concorrentes com o mesmo token consegue rotacioná-lo
+    @Modifying
+    @Query("""
+        UPDATE refresh_tokens r SET r.revokedAt = :now
+        WHERE r.id = :id AND r.revokedAt IS NULL
+        """)
+    int markUsed(@Param("id") UUID id, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE refresh_tokens r SET r.revokedAt = :now WHERE r.familyId = :familyId AND r.revokedAt IS NULL")
+    int revokeFamily(@Param("familyId") UUID familyId, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE refresh_tokens r SET r.revokedAt = :now WHERE r.userId = :userId AND r.revokedAt IS NULL")
+    int revokeAllByUserId(@Param("userId") UUID userId, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM refresh_tokens r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,24 @@
+package com.kioshi.todolist.repositories;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.kioshi.todolist.entities.RevokedTokenEntity;
+
+import jakarta.transaction.Transactional;
+
+public interface RevokedTokenRepository extends JpaRepository<RevokedTokenEntity, UUID>{
+
+    List<RevokedTokenEntity> findByRevokedAtAfterAndExpiresAtAfter(LocalDateTime revokedAt, LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM revoked_tokens r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
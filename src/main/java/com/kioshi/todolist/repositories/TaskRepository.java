@@ -1,13 +1,144 @@
 package com.kioshi.todolist.repositories;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.NativeQuery;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import com.kioshi.todolist.dtos.task.TaskResponseDTO;
 import com.kioshi.todolist.entities.TaskEntity;
 
+import jakarta.transaction.Transactional;
+
 public interface TaskRepository extends JpaRepository<TaskEntity, UUID>{
     List<TaskEntity> findByUserEntity_Id(UUID userId);
-    void deleteByUserEntity_Id(UUID userId);
+    long countByUserEntity_Id(UUID userId);
+
+    // Dono conferido no próprio DELETE: 0 linhas = task inexistente ou de outro usuário
+    @Modifying
+    @Query("DELETE FROM tasks t WHERE t.id = :id AND t.userEntity.id = :userId")
+    int deleteByIdAndUserId(@Param("id") UUID id, @Param("userId") UUID userId);
+
+    // DELETE único em vez do delete derivado, que carrega e remove entidade por entidade
+    @Modifying
+    @Query("DELETE FROM tasks t WHERE t.userEntity.id = :userId")
+    int deleteAllByUserId(@Param("userId") UUID userId);
+
+    // Sonda limitada: lê no máximo :threshold + 1 entradas do índice em vez de contar todas as tasks do usuário
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM tasks WHERE user_id = :userId OFFSET :threshold LIMIT 1)", nativeQuery = true)
+    boolean hasMoreTasksThan(@Param("userId") UUID userId, @Param("threshold") long threshold);
+
+    // Remove no máximo :limit tasks por vez, para o expurgo em segundo plano não segurar locks longos
+    @Modifying
+    @Query(value = "DELETE FROM tasks WHERE id IN (SELECT id FROM tasks WHERE user_id = :userId LIMIT :limit)", nativeQuery = true)
+    int deleteChunkByUserId(@Param("userId") UUID userId, @Param("limit") int limit);
+
+    // Projeção direto no DTO de leitura: não carrega o UserEntity de cada task
+    @Query("""
+        SELECT new com.kioshi.todolist.dtos.task.TaskResponseDTO(t.id, t.name, t.content, t.completed, t.createdAt, t.version)
+        FROM tasks t
+        WHERE t.userEntity.id = :userId
+        ORDER BY t.createdAt ASC, t.id ASC
+        """)
+    List<TaskResponseDTO> findAllByUserId(@Param("userId") UUID userId);
+
+    // Paginação por keyset (createdAt, id), servida pelo índice idx_tasks_user_created_id
+    @Query("""
+        SELECT new com.kioshi.todolist.dtos.task.TaskResponseDTO(t.id, t.name, t.content, t.completed, t.createdAt, t.version)
+        FROM tasks t
+        WHERE t.userEntity.id = :userId
+        AND (:completed IS NULL OR t.completed = :completed)
+        ORDER BY t.createdAt ASC, t.id ASC
+        """)
+    List<TaskResponseDTO> findFirstPage(@Param("userId") UUID userId, @Param("completed") Boolean completed, Limit limit);
+
+    // Comparação de linha (created_at, id) > (...): vira Index Cond em idx_tasks_user_created_id e o scan começa
+    // direto no cursor. Com o OR equivalente o Postgres só usa user_id no índice e filtra as páginas anteriores
+    String PAGE_AFTER_SQL = """
+        SELECT t.id, t.name, t.content, t.completed, t.created_at, t.version
+        FROM tasks t
+        WHERE t.user_id = :userId
+        AND (CAST(:completed AS boolean) IS NULL OR t.completed = CAST(:completed AS boolean))
+        AND (t.created_at, t.id) > (:createdAt, :id)
+        ORDER BY t.created_at ASC, t.id ASC
+        LIMIT :limit
+        """;
+
+    @NativeQuery(value = PAGE_AFTER_SQL, sqlResultSetMapping = "TaskResponse")
+    List<TaskResponseDTO> findPageAfter(
+        @Param("userId") UUID userId,
+        @Param("completed") Boolean completed,
+        @Param("createdAt") LocalDateTime createdAt,
+        @Param("id") UUID id,
+        @Param("limit") int limit
+    );
+
+    List<TaskEntity> findAllByIdInAndUserEntity_Id(Collection<UUID> ids, UUID userId);
+
+    @Query("SELECT t.id FROM tasks t WHERE t.id IN :ids AND t.userEntity.id = :userId")
+    List<UUID> findOwnedIds(@Param("ids") Collection<UUID> ids, @Param("userId") UUID userId);
+
+    @Modifying
+    @Query("UPDATE tasks t SET t.completed = true, t.version = t.version + 1 WHERE t.id IN :ids AND t.userEntity.id = :userId")
+    int completeAll(@Param("ids") Collection<UUID> ids, @Param("userId") UUID userId);
+
+    boolean existsByIdAndUserEntity_Id(UUID id, UUID userId);
+
+    // Busca ranqueada: full-text com prefixo (:tsQuery, ex.: "compr:* & pao:*") ou similaridade de palavra no nome (<%).
+    // user_id entra nos dois índices GIN (btree_gin), então nenhuma task de outro usuário é lida
+    @NativeQuery(value = """
+        SELECT t.id, t.name, t.content, t.completed, t.created_at, t.version
+        FROM tasks t
+        CROSS JOIN to_tsquery('portuguese', :tsQuery) q
+        WHERE t.user_id = :userId
+        AND (t.search_vector @@ q OR :term <% t.name)
+        ORDER BY ts_rank_cd(t.search_vector, q) + word_similarity(:term, t.name) DESC, t.created_at DESC, t.id
+        LIMIT :limit OFFSET :offset
+        """, sqlResultSetMapping = "TaskResponse")
+    List<TaskResponseDTO> search(
+        @Param("userId") UUID userId,
+        @Param("tsQuery") String tsQuery,
+        @Param("term") String term,
+        @Param("limit") int limit,
+        @Param("offset") int offset
+    );
+
+    interface UpdatedTaskRow {
+        UUID getId();
+        String getName();
+        String getContent();
+        Boolean getCompleted();
+        Long getVersion();
+    }
+
+    // Update condicional em um único statement: dono, versão (quando informada) e campos parciais,
+    // devolvendo a linha nova via RETURNING. Nenhuma linha = task inexistente/de outro usuário ou versão desatualizada
+    @Transactional
+    @Query(value = """
+        UPDATE tasks SET
+            name = COALESCE(CAST(:name AS VARCHAR), name),
+            content = COALESCE(CAST(:content AS VARCHAR), content),
+            completed = COALESCE(CAST(:completed AS BOOLEAN), completed),
+            version = version + 1
+        WHERE id = :id
+        AND user_id = :userId
+        AND (CAST(:expectedVersion AS BIGINT) IS NULL OR version = CAST(:expectedVersion AS BIGINT))
+        RETURNING id, name, content, completed, version
+        """, nativeQuery = true)
+    Optional<UpdatedTaskRow> updateIfMatches(
+        @Param("id") UUID id,
+        @Param("userId") UUID userId,
+        @Param("expectedVersion") Long expectedVersion,
+        @Param("name") String name,
+        @Param("content") String content,
+        @Param("completed") Boolean completed
+    );
 }
@@ -1,13 +1,54 @@
 package com.kioshi.todolist.repositories;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.kioshi.todolist.entities.UserEntity;
 
+import jakarta.transaction.Transactional;
+
 public interface UserRepository extends JpaRepository<UserEntity, UUID>{
-    Optional<UserEntity> findByUsernameOrEmail(String username, String email);
     Optional<UserEntity> findByEmail(String email);
+
+    @Query("SELECT u.tokenVersion FROM users u WHERE u.id = :id")
+    Optional<Integer> findTokenVersionById(@Param("id") UUID id);
+
+    @Query("SELECT u.tasksVersion FROM users u WHERE u.id = :id")
+    Optional<Long> findTasksVersionById(@Param("id") UUID id);
+
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE users SET tasks_version = tasks_version + 1 WHERE id = :id", nativeQuery = true)
+    int incrementTasksVersion(@Param("id") UUID id);
+
+    // Senha nova e tokenVersion + 1 no mesmo statement; o RETURNING é a versão que passa a valer nos JWTs
+    @Transactional
+    @Query(value = "UPDATE users SET password = :password, token_version = token_version + 1 WHERE id = :id RETURNING token_version", nativeQuery = true)
+    Optional<Integer> updatePasswordAndIncrementTokenVersion(@Param("id") UUID id, @Param("password") String password);
+
+    // Marca a exclusão e incrementa o tokenVersion na mesma linha: nenhum JWT emitido até aqui vale mais
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE users SET deletion_pending_at = :now, token_version = token_version + 1 WHERE id = :id AND deletion_pending_at IS NULL", nativeQuery = true)
+    int markDeletionPending(@Param("id") UUID id, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE users SET deletion_pending_at = :now WHERE id = :id AND deletion_pending_at IS NOT NULL", nativeQuery = true)
+    int touchDeletionPending(@Param("id") UUID id, @Param("now") LocalDateTime now);
+
+    @Query("SELECT u.id FROM users u WHERE u.deletionPendingAt < :staleBefore")
+    List<UUID> findStaleDeletionPending(@Param("staleBefore") LocalDateTime staleBefore);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM users u WHERE u.id = :id")
+    int deleteUserById(@Param("id") UUID id);
 }
@@ -0,0 +1,12 @@
+package com.kioshi.todolist.security;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Injeta no controller o UUID do usuário autenticado, já convertido pelo SecurityFilter
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface AuthenticatedUserId {
+}
@@ -0,0 +1,34 @@
+package com.kioshi.todolist.security;
+
+import java.util.UUID;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+import com.kioshi.todolist.exceptions.auth.JWTInvalidTokenException;
+
+@Component
+public class AuthenticatedUserIdArgumentResolver implements HandlerMethodArgumentResolver {
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter){
+        return parameter.hasParameterAnnotation(AuthenticatedUserId.class)
+            && UUID.class.equals(parameter.getParameterType());
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer, NativeWebRequest webRequest, WebDataBinderFactory binderFactory){
+        Object userId = webRequest.getAttribute(SecurityFilter.USER_ID_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+
+        if(userId == null){
+            throw new JWTInvalidTokenException();
+        }
+
+        return userId;
+    }
+}
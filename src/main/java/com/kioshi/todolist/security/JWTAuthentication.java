@@ -0,0 +1,56 @@
+package com.kioshi.todolist.security;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+// Authentication imutável: montada uma vez por token e reaproveitada em todos os requests com ele
+public class JWTAuthentication implements Authentication {
+
+    private final UserPrincipal principal;
+    private final List<GrantedAuthority> authorities;
+
+    public JWTAuthentication(UserPrincipal principal){
+        this.principal = principal;
+        this.authorities = RoleAuthorities.forRole(principal.role());
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities(){
+        return this.authorities;
+    }
+
+    @Override
+    public Object getCredentials(){
+        return null;
+    }
+
+    @Override
+    public Object getDetails(){
+        return null;
+    }
+
+    @Override
+    public UserPrincipal getPrincipal(){
+        return this.principal;
+    }
+
+    @Override
+    public boolean isAuthenticated(){
+        return true;
+    }
+
+    @Override
+    public void setAuthenticated(boolean isAuthenticated){
+        if(!isAuthenticated){
+            throw new IllegalArgumentException("JWTAuthentication é imutável");
+        }
+    }
+
+    @Override
+    public String getName(){
+        return this.principal.id().toString();
+    }
+}
@@ -2,44 +2,120 @@ package com.kioshi.todolist.security;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.UUID;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.auth0.jwt.interfaces.DecodedJWT;
 import com.kioshi.todolist.exceptions.auth.JWTInvalidTokenException;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import jakarta.annotation.PostConstruct;
+
 @Service
 public class JWTProvider {
 
     @Value("${JWT_SECRET}")
     private String jwt_secret;
 
-    public String createToken(UUID id, String role){
+    // kid usado para assinar os tokens novos com o JWT_SECRET
+    @Value("${app.jwt.active-kid:default}")
+    private String activeKid;
+
+    // Chaves anteriores ainda aceitas na validação, no formato "kid1:segredo1,kid2:segredo2"
+    @Value("${app.jwt.previous-keys:}")
+    private String previousKeys;
+
+    // Access tokens curtos: a sessão é renovada pelo refresh token, sem refazer o BCrypt do login
+    @Value("${app.jwt.access-ttl-minutes:15}")
+    private long accessTtlMinutes;
+
+    // Algorithm e JWTVerifier são thread-safe: montados uma vez e reutilizados em todo request
+    private Algorithm signingAlgorithm;
+    private JWTVerifier defaultVerifier;
+    private Map<String, JWTVerifier> verifiersByKid;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Só mede verificações reais: tokens já vistos saem do VerifiedTokenCache sem passar por aqui
+    private Timer validateTimer;
+
+    @PostConstruct
+    public void init(){
+        this.signingAlgorithm = Algorithm.HMAC256(jwt_secret);
+        this.defaultVerifier = JWT.require(this.signingAlgorithm).build();
+
+        Map<String, JWTVerifier> verifiers = new HashMap<>();
+        verifiers.put(this.activeKid, this.defaultVerifier);
+
+        if(this.previousKeys != null && !this.previousKeys.isBlank()){
+            for(String entry : this.previousKeys.split(",")){
+                int separator = entry.indexOf(':');
+
+                if(separator <= 0){
+                    throw new IllegalStateException("app.jwt.previous-keys deve seguir o formato kid:segredo");
+                }
 
-        Algorithm algorithm = Algorithm.HMAC256(jwt_secret);
+                String kid = entry.substring(0, separator).trim();
+                String secret = entry.substring(separator + 1).trim();
+                verifiers.putIfAbsent(kid, JWT.require(Algorithm.HMAC256(secret)).build());
+            }
+        }
+
+        this.verifiersByKid = Map.copyOf(verifiers);
+
+        this.validateTimer = Timer.builder("app.jwt.validate")
+            .description("Decodificação e verificação da assinatura do JWT")
+            .publishPercentileHistogram()
+            .register(this.meterRegistry);
+    }
+
+    public String createToken(UUID id, String role, int tokenVersion){
 
         return JWT.create()
+                .withKeyId(this.activeKid)
                 .withIssuer("todolist-api")
                 .withSubject(id.toString())
                 .withClaim("role", role)
-                .withExpiresAt(Instant.now().plus(Duration.ofHours(2)))
-                .sign(algorithm);
+                .withClaim("ver", tokenVersion)
+                .withJWTId(UUID.randomUUID().toString())
+                .withExpiresAt(Instant.now().plus(this.getAccessTokenTtl()))
+                .sign(this.signingAlgorithm);
+    }
+
+    public Duration getAccessTokenTtl(){
+        return Duration.ofMinutes(this.accessTtlMinutes);
     }
 
     public DecodedJWT validateToken(String token){
-        token = token.replace("Bearer ", "");
+        return this.validateTimer.record(() -> this.verify(token.replace("Bearer ", "")));
+    }
 
-        Algorithm algorithm = Algorithm.HMAC256(jwt_secret);
+    private DecodedJWT verify(String token){
 
         try{
-            return JWT.require(algorithm)
-            .build()
-            .verify(token);
+            DecodedJWT decodedJWT = JWT.decode(token);
+
+            // Tokens sem kid (emitidos antes da rotação) são validados com a chave ativa
+            String kid = decodedJWT.getKeyId();
+            JWTVerifier verifier = kid == null ? this.defaultVerifier : this.verifiersByKid.get(kid);
+
+            if(verifier == null){
+                throw new JWTInvalidTokenException();
+            }
+
+            return verifier.verify(decodedJWT);
 
         }catch(JWTVerificationException e){
             throw new JWTInvalidTokenException();
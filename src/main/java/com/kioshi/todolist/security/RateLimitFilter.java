@@ -0,0 +1,54 @@
+package com.kioshi.todolist.security;
+
+import java.io.IOException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.kioshi.todolist.exceptions.auth.TooManyRequestsException;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Limite por IP nos endpoints que calculam BCrypt, aplicado antes de ler o corpo da requisição.
+// O match é sobre o servlet path (já decodificado e sem o context path), o mesmo caminho que chega ao controller:
+// comparar o getRequestURI cru deixava passar /api/v1/user/%6cogin.
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final RequestMatcher HASHING_PATHS = new OrRequestMatcher(
+        AntPathRequestMatcher.antMatcher("/api/v1/user/create"),
+        AntPathRequestMatcher.antMatcher("/api/v1/user/login"),
+        AntPathRequestMatcher.antMatcher("/api/v1/user/change-password"),
+        AntPathRequestMatcher.antMatcher("/api/v1/user/reset-password")
+    );
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request){
+        return !HASHING_PATHS.matches(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException{
+
+        // Atrás de um balanceador, só vira o IP do cliente com server.forward-headers-strategy=native (ver README)
+        try{
+            this.rateLimiter.checkIp(request.getRemoteAddr());
+        }catch(TooManyRequestsException e){
+            response.setStatus(429);
+            response.setHeader("Retry-After", String.valueOf(e.getRetryAfterSeconds()));
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+}
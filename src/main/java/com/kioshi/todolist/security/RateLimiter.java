@@ -0,0 +1,82 @@
+package com.kioshi.todolist.security;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.kioshi.todolist.exceptions.auth.TooManyRequestsException;
+
+import jakarta.annotation.PostConstruct;
+
+// Token bucket em memória por IP e por conta, para os endpoints que calculam BCrypt.
+// Cada bucket é um único AtomicLong (GCRA: guarda o instante teórico da próxima liberação), atualizado via CAS, sem locks;
+// o Caffeine já distribui as chaves em segmentos e descarta buckets ociosos.
+@Component
+public class RateLimiter {
+
+    @Value("${app.security.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.security.rate-limit.ip.per-minute:60}")
+    private int ipPerMinute;
+
+    @Value("${app.security.rate-limit.ip.burst:20}")
+    private int ipBurst;
+
+    @Value("${app.security.rate-limit.account.per-minute:10}")
+    private int accountPerMinute;
+
+    @Value("${app.security.rate-limit.account.burst:5}")
+    private int accountBurst;
+
+    @Value("${app.security.rate-limit.max-keys:100000}")
+    private long maxKeys;
+
+    private Cache<String, AtomicLong> buckets;
+
+    @PostConstruct
+    void init(){
+        this.buckets = Caffeine.newBuilder()
+            .maximumSize(this.maxKeys)
+            .expireAfterAccess(10, TimeUnit.MINUTES)
+            .build();
+    }
+
+    public void checkIp(String ip){
+        this.acquire("ip:" + ip, this.ipPerMinute, this.ipBurst);
+    }
+
+    public void checkAccount(String account){
+        this.acquire("account:" + account.toLowerCase(), this.accountPerMinute, this.accountBurst);
+    }
+
+    private void acquire(String key, int perMinute, int burst){
+        if(!this.enabled){
+            return;
+        }
+
+        AtomicLong bucket = this.buckets.get(key, k -> new AtomicLong(System.nanoTime()));
+
+        long interval = TimeUnit.MINUTES.toNanos(1) / perMinute;
+        long tolerance = interval * burst;
+
+        while (true) {
+            long now = System.nanoTime();
+            long tat = bucket.get();
+            long newTat = Math.max(tat, now) + interval;
+
+            if (newTat - now > tolerance) {
+                long waitNanos = newTat - now - tolerance;
+                throw new TooManyRequestsException(TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1);
+            }
+
+            if (bucket.compareAndSet(tat, newTat)) {
+                return;
+            }
+        }
+    }
+}
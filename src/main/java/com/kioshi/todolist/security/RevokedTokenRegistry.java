@@ -0,0 +1,151 @@
+package com.kioshi.todolist.security;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.kioshi.todolist.entities.RevokedTokenEntity;
+import com.kioshi.todolist.repositories.RevokedTokenRepository;
+
+import jakarta.annotation.PostConstruct;
+
+// Access tokens revogados (jti) mantidos em memória: o SecurityFilter consulta sem ir ao banco.
+// O Bloom filter responde "com certeza não revogado" para quase todo request; só os positivos conferem o mapa exato.
+// Cada instância relê a tabela revoked_tokens de forma incremental, pelo revoked_at.
+@Component
+public class RevokedTokenRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(RevokedTokenRegistry.class);
+
+    // Margem na releitura incremental para pegar linhas de transações que commitaram depois
+    private static final Duration REFRESH_OVERLAP = Duration.ofSeconds(30);
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Value("${app.jwt.revocation.expected-insertions:100000}")
+    private int expectedInsertions;
+
+    private final Map<UUID, LocalDateTime> revoked = new ConcurrentHashMap<>();
+    private volatile BloomFilter bloomFilter = new BloomFilter(1024);
+    private volatile LocalDateTime lastSeenRevokedAt = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    @PostConstruct
+    public void init(){
+        this.bloomFilter = new BloomFilter(this.expectedInsertions);
+        this.refresh();
+    }
+
+    public boolean isRevoked(UUID tokenId){
+        if(tokenId == null || !this.bloomFilter.mightContain(tokenId)){
+            return false;
+        }
+
+        return this.revoked.containsKey(tokenId);
+    }
+
+    public void revoke(UUID tokenId, LocalDateTime expiresAt){
+        if(tokenId == null){
+            return;
+        }
+
+        this.revokedTokenRepository.save(new RevokedTokenEntity(tokenId, expiresAt, LocalDateTime.now()));
+        this.add(tokenId, expiresAt);
+    }
+
+    @Scheduled(fixedDelayString = "${app.jwt.revocation.refresh-ms:2000}", initialDelayString = "${app.jwt.revocation.refresh-ms:2000}")
+    public void refresh(){
+        LocalDateTime now = LocalDateTime.now();
+
+        for(RevokedTokenEntity entity : this.revokedTokenRepository.findByRevokedAtAfterAndExpiresAtAfter(this.lastSeenRevokedAt.minus(REFRESH_OVERLAP), now)){
+            this.add(entity.getTokenId(), entity.getExpiresAt());
+
+            if(entity.getRevokedAt().isAfter(this.lastSeenRevokedAt)){
+                this.lastSeenRevokedAt = entity.getRevokedAt();
+            }
+        }
+    }
+
+    // Tira do mapa os tokens que já expirariam de qualquer forma e remonta o Bloom filter sem eles
+    @Scheduled(fixedDelayString = "${app.jwt.revocation.prune-ms:600000}", initialDelayString = "${app.jwt.revocation.prune-ms:600000}")
+    public void prune(){
+        LocalDateTime now = LocalDateTime.now();
+
+        this.revoked.values().removeIf(expiresAt -> expiresAt.isBefore(now));
+
+        BloomFilter rebuilt = new BloomFilter(Math.max(this.expectedInsertions, this.revoked.size() * 2));
+        this.revoked.keySet().forEach(rebuilt::put);
+        this.bloomFilter = rebuilt;
+        // Segunda passada cobre revogações que entraram no mapa durante a remontagem
+        this.revoked.keySet().forEach(rebuilt::put);
+
+        int deleted = this.revokedTokenRepository.deleteExpired(now);
+        log.debug("Revogações expiradas removidas: {} (ativas: {})", deleted, this.revoked.size());
+    }
+
+    public int size(){
+        return this.revoked.size();
+    }
+
+    private void add(UUID tokenId, LocalDateTime expiresAt){
+        // Mapa antes do filtro: quem vê o bit ligado sempre encontra a entrada
+        this.revoked.put(tokenId, expiresAt);
+        this.bloomFilter.put(tokenId);
+    }
+
+    // Bloom filter com ~1% de falsos positivos, bits em AtomicLongArray (inserções concorrentes sem lock)
+    static final class BloomFilter {
+
+        private static final int HASHES = 7;
+
+        private final AtomicLongArray bits;
+        private final long bitCount;
+
+        BloomFilter(int expectedInsertions){
+            long words = Math.max(1, (long) expectedInsertions * 10 / 64 + 1);
+            this.bits = new AtomicLongArray((int) words);
+            this.bitCount = words * 64;
+        }
+
+        void put(UUID id){
+            long h1 = mix(id.getMostSignificantBits());
+            long h2 = mix(id.getLeastSignificantBits());
+
+            for(int i = 0; i < HASHES; i++){
+                long bit = Math.floorMod(h1 + i * h2, this.bitCount);
+                long mask = 1L << bit;
+                this.bits.accumulateAndGet((int) (bit >>> 6), mask, (current, m) -> current | m);
+            }
+        }
+
+        boolean mightContain(UUID id){
+            long h1 = mix(id.getMostSignificantBits());
+            long h2 = mix(id.getLeastSignificantBits());
+
+            for(int i = 0; i < HASHES; i++){
+                long bit = Math.floorMod(h1 + i * h2, this.bitCount);
+                if((this.bits.get((int) (bit >>> 6)) & (1L << bit)) == 0){
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // Finalizador do SplitMix64: espalha bem os bits, inclusive de UUIDs sequenciais
+        private static long mix(long z){
+            z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+            z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+            return z ^ (z >>> 31);
+        }
+    }
+}
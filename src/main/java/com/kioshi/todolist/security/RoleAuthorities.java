@@ -0,0 +1,40 @@
+package com.kioshi.todolist.security;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import com.kioshi.todolist.enums.Permission;
+
+// Listas de authorities pré-montadas, uma por Permission, compartilhadas por todos os requests
+public final class RoleAuthorities {
+
+    private static final Map<String, List<GrantedAuthority>> AUTHORITIES;
+
+    static {
+        Map<String, List<GrantedAuthority>> authorities = new HashMap<>();
+
+        for(Permission permission : Permission.values()){
+            String role = "ROLE_" + permission.name();
+            authorities.put(role, List.of(new SimpleGrantedAuthority(role)));
+        }
+
+        AUTHORITIES = Collections.unmodifiableMap(authorities);
+    }
+
+    private RoleAuthorities() {}
+
+    public static List<GrantedAuthority> forRole(String role){
+        List<GrantedAuthority> authorities = AUTHORITIES.get(role);
+
+        if(authorities == null){
+            return List.of(new SimpleGrantedAuthority(role));
+        }
+
+        return authorities;
+    }
+}
@@ -1,13 +1,22 @@
 package com.kioshi.todolist.security;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import static org.springframework.security.config.Customizer.withDefaults;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
@@ -18,9 +27,35 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 @Configuration
 public class SecurityConfig {
 
+    private static final Logger log = LoggerFactory.getLogger(SecurityConfig.class);
+
     @Autowired
     private SecurityFilter securityFilter;
 
+    @Value("${app.security.password.algorithm:bcrypt}")
+    private String passwordAlgorithm;
+
+    @Value("${app.security.password.target-ms:0}")
+    private long targetHashMs;
+
+    @Value("${app.security.password.bcrypt.strength:10}")
+    private int bcryptStrength;
+
+    @Value("${app.security.password.argon2.memory-kb:19456}")
+    private int argon2MemoryKb;
+
+    @Value("${app.security.password.argon2.iterations:2}")
+    private int argon2Iterations;
+
+    @Value("${app.security.password.argon2.parallelism:1}")
+    private int argon2Parallelism;
+
+    @Value("${app.security.password.argon2.salt-length:16}")
+    private int argon2SaltLength;
+
+    @Value("${app.security.password.argon2.hash-length:32}")
+    private int argon2HashLength;
+
     @Bean
     SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception{
         http.csrf(csrf -> csrf.disable())
@@ -29,7 +64,10 @@ public class SecurityConfig {
                 auth
                 .requestMatchers("/api/v1/user/create").permitAll()
                 .requestMatchers("/api/v1/user/login").permitAll()
+                .requestMatchers("/api/v1/user/refresh").permitAll()
                 .requestMatchers("/api/v1/user/reset-password").permitAll()
+                // Scrape do Prometheus e health check; em produção, isole com management.server.port
+                .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
                 .anyRequest().authenticated();
             })
             .addFilterBefore(securityFilter, BasicAuthenticationFilter.class);
@@ -53,8 +91,67 @@ public class SecurityConfig {
     }
     
 
+    // Hashes novos usam o algoritmo configurado com prefixo ({bcrypt}, {argon2});
+    // hashes antigos, sem prefixo, continuam sendo conferidos como BCrypt e são regravados no próximo login
     @Bean
     public PasswordEncoder passwordEncoder(){
-        return new BCryptPasswordEncoder();
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(this.bcryptStrength());
+        Argon2PasswordEncoder argon2 = new Argon2PasswordEncoder(
+            this.argon2SaltLength, this.argon2HashLength, this.argon2Parallelism, this.argon2MemoryKb, this.argon2Iterations()
+        );
+
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put("bcrypt", bcrypt);
+        encoders.put("argon2", argon2);
+
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(this.passwordAlgorithm, encoders);
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return encoder;
+    }
+
+    // Com target-ms > 0, sobe o custo do BCrypt para chegar perto do alvo nesta máquina (nunca abaixo do configurado)
+    private int bcryptStrength(){
+        if(this.targetHashMs <= 0 || !"bcrypt".equals(this.passwordAlgorithm)){
+            return this.bcryptStrength;
+        }
+
+        int strength = this.bcryptStrength;
+        long elapsed = Math.max(1, measureMillis(new BCryptPasswordEncoder(strength)));
+
+        // Cada ponto de strength dobra o custo; sobe enquanto o próximo passo não passar de 1,5x o alvo
+        while(elapsed * 2 <= this.targetHashMs * 1.5 && strength < 31){
+            strength++;
+            elapsed *= 2;
+        }
+
+        log.info("BCrypt calibrado: strength {} (~{} ms por hash, alvo {} ms)", strength, elapsed, this.targetHashMs);
+        return strength;
+    }
+
+    // Mesma calibração para o Argon2, ajustando o número de iterações (custo linear)
+    private int argon2Iterations(){
+        if(this.targetHashMs <= 0 || !"argon2".equals(this.passwordAlgorithm)){
+            return this.argon2Iterations;
+        }
+
+        long elapsed = Math.max(1, measureMillis(new Argon2PasswordEncoder(
+            this.argon2SaltLength, this.argon2HashLength, this.argon2Parallelism, this.argon2MemoryKb, 1
+        )));
+        int iterations = (int) Math.max(this.argon2Iterations, this.targetHashMs / elapsed);
+
+        log.info("Argon2 calibrado: {} iterações (~{} ms por hash, alvo {} ms)", iterations, elapsed * iterations, this.targetHashMs);
+        return iterations;
+    }
+
+    private static long measureMillis(PasswordEncoder encoder){
+        // Um hash de aquecimento e a melhor de três medições
+        encoder.encode("calibration-password");
+        long best = Long.MAX_VALUE;
+        for(int i = 0; i < 3; i++){
+            long start = System.nanoTime();
+            encoder.encode("calibration-password");
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return TimeUnit.NANOSECONDS.toMillis(best);
     }
 }
@@ -1,16 +1,15 @@
 package com.kioshi.todolist.security;
 
 import java.io.IOException;
-import java.util.List;
+import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import com.auth0.jwt.interfaces.DecodedJWT;
+import com.kioshi.todolist.security.VerifiedTokenCache.VerifiedToken;
 
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -20,9 +19,20 @@ import jakarta.servlet.http.HttpServletResponse;
 @Component
 public class SecurityFilter extends OncePerRequestFilter{
 
+    public static final String USER_ID_ATTRIBUTE = "user_id";
+
     @Autowired
     private JWTProvider jwtProvider;
 
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private RevokedTokenRegistry revokedTokenRegistry;
+
+    @Autowired
+    private TokenVersionCache tokenVersionCache;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException{
 
@@ -32,23 +42,51 @@ public class SecurityFilter extends OncePerRequestFilter{
 
         try{
             if(header != null){
-            DecodedJWT decodedJWT = this.jwtProvider.validateToken(header);
+            String token = header.replace("Bearer ", "");
+
+            VerifiedToken verified = this.verifiedTokenCache.get(token);
+
+            if(verified == null){
+                DecodedJWT decodedJWT = this.jwtProvider.validateToken(token);
 
-            String subjectToken = decodedJWT.getSubject();
-            String role = decodedJWT.getClaim("role").asString();
+                String subjectToken = decodedJWT.getSubject();
+                String role = decodedJWT.getClaim("role").asString();
 
-            if(subjectToken.isEmpty() || role.isEmpty()){
+                if(subjectToken == null || subjectToken.isEmpty() || role == null || role.isEmpty()){
+                    response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+                    return;
+                }
+
+                // O UUID é convertido uma única vez por token; requests seguintes reaproveitam a Authentication do cache
+                String tokenId = decodedJWT.getId();
+                Integer tokenVersion = decodedJWT.getClaim("ver").asInt();
+                UserPrincipal principal = new UserPrincipal(
+                    UUID.fromString(subjectToken),
+                    role,
+                    tokenId == null ? null : UUID.fromString(tokenId),
+                    tokenVersion == null ? 0 : tokenVersion
+                );
+
+                verified = new VerifiedToken(new JWTAuthentication(principal), decodedJWT.getExpiresAtAsInstant());
+                this.verifiedTokenCache.put(token, verified);
+            }
+
+            // Conferido também nos acertos do cache: a revogação pode ter chegado depois da primeira validação
+            UserPrincipal principal = verified.authentication().getPrincipal();
+
+            if(this.revokedTokenRegistry.isRevoked(principal.tokenId())){
                 response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
                 return;
             }
 
-            SimpleGrantedAuthority authority = new SimpleGrantedAuthority(role);
-            request.setAttribute("user_id", subjectToken);
-
-            UsernamePasswordAuthenticationToken authentication =
-                    new UsernamePasswordAuthenticationToken(subjectToken, null, List.of(authority));
+            // Token emitido antes da última troca/reset de senha
+            if(principal.tokenVersion() < this.tokenVersionCache.currentVersion(principal.id())){
+                response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+                return;
+            }
 
-            SecurityContextHolder.getContext().setAuthentication(authentication);
+            request.setAttribute(USER_ID_ATTRIBUTE, principal.id());
+            SecurityContextHolder.getContext().setAuthentication(verified.authentication());
         }
         
         }catch(Exception e){
@@ -0,0 +1,62 @@
+package com.kioshi.todolist.security;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.kioshi.todolist.repositories.UserRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import jakarta.annotation.PostConstruct;
+
+// tokenVersion atual de cada usuário, para o SecurityFilter recusar JWTs emitidos antes de uma troca de senha.
+// Login e troca de senha gravam o valor direto aqui; entradas antigas são recarregadas em segundo plano
+// (refreshAfterWrite), então o request só espera o banco na primeira vez que a instância vê o usuário.
+@Component
+public class TokenVersionCache {
+
+    // Usuário removido: nenhum token dele vale mais
+    public static final int USER_NOT_FOUND = Integer.MAX_VALUE;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.jwt.version-cache.max-size:100000}")
+    private long maxSize;
+
+    @Value("${app.jwt.version-cache.refresh-ms:5000}")
+    private long refreshMs;
+
+    private LoadingCache<UUID, Integer> cache;
+
+    @PostConstruct
+    public void init(){
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(this.maxSize)
+            .refreshAfterWrite(Duration.ofMillis(this.refreshMs))
+            .expireAfterAccess(Duration.ofHours(1))
+            .recordStats()
+            .build(userId -> this.userRepository.findTokenVersionById(userId).orElse(USER_NOT_FOUND));
+
+        // Miss aqui é uma ida ao banco no caminho do request
+        CaffeineCacheMetrics.monitor(this.meterRegistry, this.cache, "jwt.token-version");
+    }
+
+    public int currentVersion(UUID userId){
+        return this.cache.get(userId);
+    }
+
+    public void put(UUID userId, int tokenVersion){
+        this.cache.put(userId, tokenVersion);
+    }
+}
@@ -0,0 +1,7 @@
+package com.kioshi.todolist.security;
+
+import java.util.UUID;
+
+// tokenId é o jti do access token (null em tokens emitidos antes dele existir);
+// tokenVersion é o claim "ver" (0 quando ausente)
+public record UserPrincipal(UUID id, String role, UUID tokenId, int tokenVersion) {}
@@ -0,0 +1,96 @@
+package com.kioshi.todolist.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import jakarta.annotation.PostConstruct;
+
+@Component
+public class VerifiedTokenCache {
+
+    public record VerifiedToken(JWTAuthentication authentication, Instant expiresAt) {}
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.jwt.cache.max-size:100000}")
+    private long maxSize;
+
+    private Cache<String, VerifiedToken> cache;
+
+    @PostConstruct
+    public void init(){
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(this.maxSize)
+            .expireAfter(new Expiry<String, VerifiedToken>() {
+                // Cada entrada vive só até o exp do próprio token
+                @Override
+                public long expireAfterCreate(String key, VerifiedToken value, long currentTime){
+                    return Math.max(0, Duration.between(Instant.now(), value.expiresAt()).toNanos());
+                }
+
+                @Override
+                public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration){
+                    return expireAfterCreate(key, value, currentTime);
+                }
+
+                @Override
+                public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration){
+                    return currentDuration;
+                }
+            })
+            .recordStats()
+            .build();
+
+        // Hit aqui é um request que não precisou verificar a assinatura (cache_gets{cache="jwt.verified"})
+        CaffeineCacheMetrics.monitor(this.meterRegistry, this.cache, "jwt.verified");
+    }
+
+    // A chave é o digest do token inteiro (assinatura incluída): um token adulterado nunca bate no cache
+    public VerifiedToken get(String token){
+        VerifiedToken verified = this.cache.getIfPresent(digest(token));
+
+        if(verified == null || !verified.expiresAt().isAfter(Instant.now())){
+            return null;
+        }
+
+        return verified;
+    }
+
+    // Só deve ser chamado depois que a assinatura do token foi verificada
+    public void put(String token, VerifiedToken verified){
+        if(verified.expiresAt() == null){
+            return;
+        }
+
+        this.cache.put(digest(token), verified);
+    }
+
+    public long size(){
+        return this.cache.estimatedSize();
+    }
+
+    private String digest(String token){
+        try{
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().withoutPadding().encodeToString(hash);
+        }catch(NoSuchAlgorithmException e){
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.kioshi.todolist.services;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.kioshi.todolist.entities.EmailOutboxEntity;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+
+@Component
+@ConditionalOnProperty(name = "app.mail.outbox.dispatcher.enabled", havingValue = "true", matchIfMissing = true)
+public class EmailOutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailOutboxDispatcher.class);
+
+    @Autowired
+    private EmailOutboxService emailOutboxService;
+
+    // Lazy: com o outbox vazio, nem o cliente SMTP nem o pool de conexões chegam a ser criados
+    @Lazy
+    @Autowired
+    private EmailService emailService;
+
+    @Lazy
+    @Autowired
+    private SmtpConnectionPool smtpConnectionPool;
+
+    @Autowired
+    @Qualifier("emailTaskExecutor")
+    private TaskExecutor emailTaskExecutor;
+
+    @Value("${app.mail.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.mail.outbox.poll-interval-ms:1000}")
+    private long pollIntervalMs;
+
+    // Espera máxima pelo lote na thread do @Scheduled, que é compartilhada com os outros jobs
+    @Value("${app.mail.outbox.batch-timeout-ms:60000}")
+    private long batchTimeoutMs;
+
+    // Teto de envios por segundo aceito pelo provedor SMTP
+    @Value("${app.mail.outbox.rate-per-second:50}")
+    private int ratePerSecond;
+
+    private final AtomicLong sentCount = new AtomicLong();
+    private final AtomicLong retriedCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private volatile double lastBatchThroughput;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Timer sendSuccessTimer;
+    private Timer sendFailureTimer;
+
+    @PostConstruct
+    public void init(){
+        this.sendSuccessTimer = this.sendTimer("success");
+        this.sendFailureTimer = this.sendTimer("failure");
+
+        FunctionCounter.builder("app.mail.outbox.sent", this, EmailOutboxDispatcher::getSentCount)
+            .register(this.meterRegistry);
+        FunctionCounter.builder("app.mail.outbox.retried", this, EmailOutboxDispatcher::getRetriedCount)
+            .register(this.meterRegistry);
+        FunctionCounter.builder("app.mail.outbox.failed", this, EmailOutboxDispatcher::getFailedCount)
+            .description("E-mails que esgotaram as tentativas")
+            .register(this.meterRegistry);
+        Gauge.builder("app.mail.outbox.throughput", this, EmailOutboxDispatcher::getLastBatchThroughput)
+            .description("E-mails por segundo no último lote")
+            .register(this.meterRegistry);
+    }
+
+    private Timer sendTimer(String outcome){
+        return Timer.builder("app.mail.send")
+            .description("Envio de um e-mail por uma conexão SMTP já aberta")
+            .tag("outcome", outcome)
+            .publishPercentileHistogram()
+            .register(this.meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.mail.outbox.poll-interval-ms:1000}")
+    public void dispatch(){
+
+        List<EmailOutboxEntity> batch = this.emailOutboxService.claimBatch(batchLimit());
+
+        if(batch.isEmpty()){
+            return;
+        }
+
+        long start = System.nanoTime();
+
+        AtomicInteger sentInBatch = new AtomicInteger();
+
+        // Um pedaço do lote por conexão do pool, enviados em paralelo; cada pedaço grava o próprio resultado
+        int connections = Math.min(this.smtpConnectionPool.size(), batch.size());
+        int chunkSize = (batch.size() + connections - 1) / connections;
+        List<CompletableFuture<Void>> sends = new ArrayList<>();
+
+        for(int i = 0; i < batch.size(); i += chunkSize){
+            List<EmailOutboxEntity> chunk = batch.subList(i, Math.min(i + chunkSize, batch.size()));
+            sends.add(CompletableFuture.runAsync(() -> sentInBatch.addAndGet(sendChunk(chunk)), this.emailTaskExecutor));
+        }
+
+        try{
+            CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new))
+                .orTimeout(this.batchTimeoutMs, TimeUnit.MILLISECONDS)
+                .join();
+        }catch(CompletionException e){
+            // Pedaços ainda em andamento gravam o resultado quando terminarem; os que travarem voltam à fila pelo lease
+            log.warn("Outbox: lote de {} e-mails não terminou por completo", batch.size(), e.getCause());
+            return;
+        }
+
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        this.lastBatchThroughput = sentInBatch.get() / Math.max(seconds, 0.001);
+
+        log.debug("Outbox: {} de {} enviados em {} s", sentInBatch.get(), batch.size(), seconds);
+    }
+
+    // Devolve quantos e-mails do pedaço foram entregues ao SMTP
+    private int sendChunk(List<EmailOutboxEntity> chunk){
+        List<UUID> sent = new ArrayList<>();
+        Map<UUID, String> failed = new HashMap<>();
+        Transport transport;
+
+        try{
+            transport = this.smtpConnectionPool.borrow();
+        }catch(MessagingException e){
+            chunk.forEach(email -> failed.put(email.getId(), e.getMessage()));
+            recordOutcome(sent, failed);
+            return 0;
+        }
+
+        for(EmailOutboxEntity email : chunk){
+            long start = System.nanoTime();
+            try{
+                if(!transport.isConnected()){
+                    this.smtpConnectionPool.invalidate(transport);
+                    transport = this.smtpConnectionPool.borrow();
+                }
+
+                MimeMessage message = this.emailService.buildMessage(email);
+                transport.sendMessage(message, message.getAllRecipients());
+                sent.add(email.getId());
+                this.sendSuccessTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }catch(MessagingException | RuntimeException e){
+                failed.put(email.getId(), String.valueOf(e.getMessage()));
+                this.sendFailureTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        this.smtpConnectionPool.release(transport);
+
+        recordOutcome(sent, failed);
+        return sent.size();
+    }
+
+    private void recordOutcome(List<UUID> sent, Map<UUID, String> failed){
+        this.emailOutboxService.markSent(sent);
+        this.sentCount.addAndGet(sent.size());
+
+        failed.forEach((id, error) -> {
+            if(this.emailOutboxService.markFailed(id, error)){
+                this.retriedCount.incrementAndGet();
+            }else{
+                this.failedCount.incrementAndGet();
+            }
+        });
+    }
+
+    // Limite desta instância apenas: não há coordenação entre dispatchers
+    private int batchLimit(){
+        long perPoll = this.ratePerSecond * Math.max(this.pollIntervalMs, 1) / 1000;
+        return (int) Math.max(1, Math.min(this.batchSize, perPoll));
+    }
+
+    public long getSentCount(){
+        return this.sentCount.get();
+    }
+
+    public long getRetriedCount(){
+        return this.retriedCount.get();
+    }
+
+    public long getFailedCount(){
+        return this.failedCount.get();
+    }
+
+    public double getLastBatchThroughput(){
+        return this.lastBatchThroughput;
+    }
+}
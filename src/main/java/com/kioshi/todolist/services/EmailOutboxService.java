@@ -0,0 +1,85 @@
+package com.kioshi.todolist.services;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.kioshi.todolist.entities.EmailOutboxEntity;
+import com.kioshi.todolist.enums.EmailOutboxStatus;
+import com.kioshi.todolist.repositories.EmailOutboxRepository;
+
+import jakarta.transaction.Transactional;
+
+@Service
+public class EmailOutboxService {
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Value("${app.mail.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${app.mail.outbox.backoff-base-ms:2000}")
+    private long backoffBaseMs;
+
+    @Value("${app.mail.outbox.backoff-max-ms:3600000}")
+    private long backoffMaxMs;
+
+    // Tempo que um lote fica reservado; se a instância cair no meio do envio, o lote volta depois disso
+    @Value("${app.mail.outbox.lease-ms:300000}")
+    private long leaseMs;
+
+    // CLAIM BATCH
+    @Transactional
+    public List<EmailOutboxEntity> claimBatch(int limit){
+        LocalDateTime now = LocalDateTime.now();
+
+        List<EmailOutboxEntity> batch = this.emailOutboxRepository.lockNextBatch(now, limit);
+
+        for(EmailOutboxEntity email : batch){
+            email.setStatus(EmailOutboxStatus.SENDING);
+            email.setAttempts(email.getAttempts() + 1);
+            email.setNextAttemptAt(now.plus(Duration.ofMillis(this.leaseMs)));
+        }
+
+        return batch;
+    }
+
+    // MARK SENT
+    @Transactional
+    public void markSent(List<UUID> ids){
+        if(ids.isEmpty()){
+            return;
+        }
+
+        this.emailOutboxRepository.markSent(ids, LocalDateTime.now());
+    }
+
+    // MARK FAILED (com retry e backoff exponencial)
+    @Transactional
+    public boolean markFailed(UUID id, String error){
+        EmailOutboxEntity email = this.emailOutboxRepository.findById(id).orElse(null);
+
+        if(email == null){
+            return false;
+        }
+
+        email.setLastError(error == null ? null : error.substring(0, Math.min(error.length(), 1000)));
+
+        if(email.getAttempts() >= this.maxAttempts){
+            email.setStatus(EmailOutboxStatus.FAILED);
+            return false;
+        }
+
+        long backoff = Math.min(this.backoffMaxMs, this.backoffBaseMs << Math.min(email.getAttempts() - 1, 20));
+
+        email.setStatus(EmailOutboxStatus.PENDING);
+        email.setNextAttemptAt(LocalDateTime.now().plus(Duration.ofMillis(backoff)));
+        return true;
+    }
+}
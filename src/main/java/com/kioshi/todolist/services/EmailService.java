@@ -1,14 +1,20 @@
 package com.kioshi.todolist.services;
 
+import java.time.LocalDateTime;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import com.kioshi.todolist.entities.EmailOutboxEntity;
+import com.kioshi.todolist.enums.EmailOutboxStatus;
+import com.kioshi.todolist.repositories.EmailOutboxRepository;
+
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
+import jakarta.transaction.Transactional;
 
 
 @Service
@@ -17,22 +23,40 @@ public class EmailService {
     @Autowired
     private JavaMailSender javaMailSender;
 
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
     @Value("${app.mail.from}")
     private String from;
 
 
-    @Async
-    public void sendEmail(String to, String subject, String body) throws MessagingException {
+    // Grava o e-mail no outbox na mesma transação de quem chamou; o envio fica com o EmailOutboxDispatcher
+    @Transactional
+    public void queueEmail(String to, String subject, String body) {
+
+        EmailOutboxEntity email = EmailOutboxEntity.builder()
+        .recipient(to)
+        .subject(subject)
+        .body(body)
+        .status(EmailOutboxStatus.PENDING)
+        .attempts(0)
+        .nextAttemptAt(LocalDateTime.now())
+        .build();
+
+        this.emailOutboxRepository.save(email);
+    }
+
+    public MimeMessage buildMessage(EmailOutboxEntity email) throws MessagingException {
 
         MimeMessage message = javaMailSender.createMimeMessage();
         MimeMessageHelper helper = new MimeMessageHelper(message, true);
 
         helper.setFrom(from);
-        helper.setTo(to);
-        helper.setSubject(subject);
-        helper.setText(body, true);
-
-        javaMailSender.send(message);
+        helper.setTo(email.getRecipient());
+        helper.setSubject(email.getSubject());
+        helper.setText(email.getBody(), true);
 
+        message.saveChanges();
+        return message;
     }
 }
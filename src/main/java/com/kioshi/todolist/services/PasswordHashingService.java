@@ -0,0 +1,146 @@
+package com.kioshi.todolist.services;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import com.kioshi.todolist.exceptions.auth.PasswordHashingBusyException;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+
+// Todo BCrypt roda no pool limitado "passwordHashingExecutor", fora das threads do Tomcat.
+// Fila cheia ou espera longa demais viram 503 imediato em vez de acumular requisições.
+@Service
+public class PasswordHashingService {
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    @Qualifier("passwordHashingExecutor")
+    private ThreadPoolTaskExecutor executor;
+
+    @Value("${app.security.hashing.timeout-ms:5000}")
+    private long timeoutMs;
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder totalHashNanos = new LongAdder();
+    private final AtomicLong maxHashNanos = new AtomicLong();
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Timer hashTimer;
+
+    @PostConstruct
+    public void init(){
+        // Tempo de CPU do hash em si; a espera na fila aparece em app.password.hashing.queue
+        this.hashTimer = Timer.builder("app.password.hash")
+            .description("Cálculo de BCrypt/Argon2 no passwordHashingExecutor")
+            .publishPercentileHistogram()
+            .register(this.meterRegistry);
+
+        Gauge.builder("app.password.hashing.queue", this, PasswordHashingService::getQueueDepth)
+            .description("Hashes aguardando thread livre")
+            .register(this.meterRegistry);
+        Gauge.builder("app.password.hashing.active", this, PasswordHashingService::getActiveCount)
+            .register(this.meterRegistry);
+        FunctionCounter.builder("app.password.hashing.rejected", this, PasswordHashingService::getRejectedCount)
+            .description("Hashes recusados com 503 (fila cheia ou timeout)")
+            .register(this.meterRegistry);
+    }
+
+    public String encode(String rawPassword){
+        return this.run(() -> this.passwordEncoder.encode(rawPassword));
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword){
+        return this.run(() -> this.passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    // Barato: só inspeciona o prefixo e os parâmetros gravados no hash
+    public boolean needsRehash(String encodedPassword){
+        return this.passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T run(Supplier<T> hashing){
+        Future<T> future;
+        try {
+            future = this.executor.submit(() -> this.timed(hashing));
+        } catch (TaskRejectedException e) {
+            this.rejected.increment();
+            throw new PasswordHashingBusyException();
+        }
+
+        try {
+            return future.get(this.timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            this.rejected.increment();
+            throw new PasswordHashingBusyException();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingBusyException();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private <T> T timed(Supplier<T> hashing){
+        long start = System.nanoTime();
+        try {
+            return hashing.get();
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            this.hashTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            this.completed.increment();
+            this.totalHashNanos.add(elapsed);
+            this.maxHashNanos.accumulateAndGet(elapsed, Math::max);
+        }
+    }
+
+    public int getQueueDepth(){
+        return this.executor.getQueueSize();
+    }
+
+    public int getActiveCount(){
+        return this.executor.getActiveCount();
+    }
+
+    public long getCompletedCount(){
+        return this.completed.sum();
+    }
+
+    public long getRejectedCount(){
+        return this.rejected.sum();
+    }
+
+    public double getAverageHashMillis(){
+        long count = this.completed.sum();
+        return count == 0 ? 0 : this.totalHashNanos.sum() / (count * 1_000_000.0);
+    }
+
+    public double getMaxHashMillis(){
+        return this.maxHashNanos.get() / 1_000_000.0;
+    }
+}
@@ -0,0 +1,115 @@
+package com.kioshi.todolist.services;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.kioshi.todolist.entities.RefreshTokenEntity;
+import com.kioshi.todolist.exceptions.auth.InvalidRefreshTokenException;
+import com.kioshi.todolist.repositories.RefreshTokenRepository;
+
+import jakarta.transaction.Transactional;
+
+// Refresh tokens opacos: o cliente recebe 32 bytes aleatórios, o banco guarda só o SHA-256.
+// Cada uso gera um token novo na mesma família; reapresentar um token já usado revoga a família inteira.
+@Service
+public class RefreshTokenService {
+
+    public record RotatedRefreshToken(UUID userId, String refreshToken) {}
+
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Value("${app.jwt.refresh-ttl-days:30}")
+    private long refreshTtlDays;
+
+    // ISSUE (um login abre uma família nova)
+    public String issue(UUID userId){
+        return this.save(userId, UUID.randomUUID()).refreshToken();
+    }
+
+    // ROTATE
+    @Transactional(dontRollbackOn = InvalidRefreshTokenException.class)
+    public RotatedRefreshToken rotate(String refreshToken){
+        LocalDateTime now = LocalDateTime.now();
+
+        RefreshTokenEntity current = this.refreshTokenRepository.findByTokenHash(hash(refreshToken))
+        .orElseThrow(() -> {
+            throw new InvalidRefreshTokenException();
+        });
+
+        if(current.getExpiresAt().isBefore(now)){
+            throw new InvalidRefreshTokenException();
+        }
+
+        // Já usado (ou perdeu a corrida com outro refresh): sinal de token vazado
+        if(current.getRevokedAt() != null || this.refreshTokenRepository.markUsed(current.getId(), now) == 0){
+            this.refreshTokenRepository.revokeFamily(current.getFamilyId(), now);
+            throw new InvalidRefreshTokenException();
+        }
+
+        IssuedRefreshToken next = this.save(current.getUserId(), current.getFamilyId());
+
+        current.setRevokedAt(now);
+        current.setReplacedBy(next.id());
+
+        return new RotatedRefreshToken(current.getUserId(), next.refreshToken());
+    }
+
+    // REVOKE (logout): só a família do token apresentado, e só se for do próprio usuário
+    @Transactional
+    public void revoke(UUID userId, String refreshToken){
+        this.refreshTokenRepository.findByTokenHash(hash(refreshToken))
+        .filter(token -> token.getUserId().equals(userId))
+        .ifPresent(token -> this.refreshTokenRepository.revokeFamily(token.getFamilyId(), LocalDateTime.now()));
+    }
+
+    // REVOKE ALL (troca/reset de senha)
+    @Transactional
+    public void revokeAll(UUID userId){
+        this.refreshTokenRepository.revokeAllByUserId(userId, LocalDateTime.now());
+    }
+
+    @Scheduled(cron = "${app.jwt.refresh-cleanup-cron:0 0 4 * * *}")
+    public void deleteExpired(){
+        this.refreshTokenRepository.deleteExpired(LocalDateTime.now());
+    }
+
+    private record IssuedRefreshToken(UUID id, String refreshToken) {}
+
+    private IssuedRefreshToken save(UUID userId, UUID familyId){
+        byte[] bytes = new byte[32];
+        this.secureRandom.nextBytes(bytes);
+        String refreshToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshTokenEntity entity = RefreshTokenEntity.builder()
+        .userId(userId)
+        .familyId(familyId)
+        .tokenHash(hash(refreshToken))
+        .expiresAt(LocalDateTime.now().plusDays(this.refreshTtlDays))
+        .build();
+
+        return new IssuedRefreshToken(this.refreshTokenRepository.save(entity).getId(), refreshToken);
+    }
+
+    private static String hash(String refreshToken){
+        try{
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(refreshToken.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        }catch(NoSuchAlgorithmException e){
+            throw new IllegalStateException(e);
+        }
+    }
+}
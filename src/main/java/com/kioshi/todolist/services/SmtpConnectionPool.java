@@ -0,0 +1,87 @@
+package com.kioshi.todolist.services;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+
+// Conexões SMTP mantidas abertas entre os lotes, para não pagar o handshake (e o STARTTLS) a cada e-mail
+@Component
+public class SmtpConnectionPool {
+
+    @Autowired
+    private JavaMailSender javaMailSender;
+
+    @Value("${app.mail.outbox.connections:2}")
+    private int size;
+
+    private BlockingQueue<Transport> idle;
+
+    @PostConstruct
+    public void init(){
+        this.idle = new ArrayBlockingQueue<>(this.size);
+    }
+
+    public int size(){
+        return this.size;
+    }
+
+    public Transport borrow() throws MessagingException {
+        Transport transport = this.idle.poll();
+
+        if(transport == null){
+            transport = sender().getSession().getTransport(sender().getProtocol());
+        }
+
+        // isConnected() manda um NOOP: conexões derrubadas pelo servidor são reabertas aqui
+        if(!transport.isConnected()){
+            connect(transport);
+        }
+
+        return transport;
+    }
+
+    public void release(Transport transport){
+        if(!transport.isConnected() || !this.idle.offer(transport)){
+            close(transport);
+        }
+    }
+
+    public void invalidate(Transport transport){
+        close(transport);
+    }
+
+    @PreDestroy
+    public void closeAll(){
+        Transport transport;
+        while((transport = this.idle.poll()) != null){
+            close(transport);
+        }
+    }
+
+    private void connect(Transport transport) throws MessagingException {
+        JavaMailSenderImpl sender = sender();
+        transport.connect(sender.getHost(), sender.getPort(), sender.getUsername(), sender.getPassword());
+    }
+
+    private void close(Transport transport){
+        try{
+            transport.close();
+        }catch(MessagingException e){
+            // conexão já estava encerrada
+        }
+    }
+
+    private JavaMailSenderImpl sender(){
+        return (JavaMailSenderImpl) this.javaMailSender;
+    }
+}
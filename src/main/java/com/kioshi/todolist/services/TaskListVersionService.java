@@ -0,0 +1,70 @@
+package com.kioshi.todolist.services;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.kioshi.todolist.exceptions.user.UserNotFoundException;
+import com.kioshi.todolist.repositories.UserRepository;
+
+import jakarta.annotation.PostConstruct;
+
+// Versão monotônica da lista de tasks de cada usuário (users.tasks_version).
+// GET /task/all compara o If-None-Match com ela e responde 304 sem consultar a tabela de tasks.
+// O cache local é invalidado depois do commit de cada alteração; outras instâncias enxergam a mudança em até cache-ttl-ms.
+@Service
+public class TaskListVersionService {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${app.tasks.list-version.cache-ttl-ms:1000}")
+    private long cacheTtlMs;
+
+    @Value("${app.tasks.list-version.cache-max-size:100000}")
+    private long cacheMaxSize;
+
+    private LoadingCache<UUID, Long> cache;
+
+    @PostConstruct
+    public void init(){
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(this.cacheMaxSize)
+            .expireAfterWrite(Duration.ofMillis(this.cacheTtlMs))
+            .build(userId -> this.userRepository.findTasksVersionById(userId).orElse(null));
+    }
+
+    public long currentVersion(UUID userId){
+        Long version = this.cache.get(userId);
+
+        if(version == null){
+            throw new UserNotFoundException();
+        }
+
+        return version;
+    }
+
+    // Chamado por toda alteração nas tasks, dentro da mesma transação
+    public void increment(UUID userId){
+        this.userRepository.incrementTasksVersion(userId);
+
+        // Invalidar antes do commit deixaria outra leitura recarregar e cachear a versão antiga
+        if(TransactionSynchronizationManager.isSynchronizationActive()){
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit(){
+                    cache.invalidate(userId);
+                }
+            });
+        } else {
+            this.cache.invalidate(userId);
+        }
+    }
+}
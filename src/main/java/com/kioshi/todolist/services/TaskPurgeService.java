@@ -0,0 +1,95 @@
+package com.kioshi.todolist.services;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.kioshi.todolist.repositories.UserRepository;
+
+// Expurgo em segundo plano das contas com muitas tasks: apaga em lotes curtos e só no fim remove o usuário.
+// A conta já chega aqui marcada (users.deletion_pending_at); cada lote renova a marca, e marcas paradas há mais de
+// resume-after-ms são de expurgos interrompidos (restart, deploy) e são retomadas por resumeStalePurges.
+@Service
+public class TaskPurgeService {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskPurgeService.class);
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    @Qualifier("taskPurgeExecutor")
+    private TaskExecutor taskPurgeExecutor;
+
+    @Value("${app.tasks.purge.chunk-size:5000}")
+    private int chunkSize;
+
+    @Value("${app.tasks.purge.resume-after-ms:300000}")
+    private long resumeAfterMs;
+
+    // Expurgos em andamento nesta instância, para a retomada não enfileirar o mesmo usuário duas vezes
+    private final Set<UUID> running = ConcurrentHashMap.newKeySet();
+
+    public void purgeUser(UUID userId){
+        if(!this.running.add(userId)){
+            return;
+        }
+
+        try {
+            this.taskPurgeExecutor.execute(() -> this.purge(userId));
+        } catch (TaskRejectedException e) {
+            // A marca continua no banco: a próxima retomada tenta de novo
+            this.running.remove(userId);
+            log.warn("Expurgo do usuário {} adiado: fila de expurgo cheia", userId);
+        }
+    }
+
+    @Scheduled(
+        initialDelayString = "${app.tasks.purge.resume-initial-delay-ms:30000}",
+        fixedDelayString = "${app.tasks.purge.resume-interval-ms:60000}"
+    )
+    public void resumeStalePurges(){
+        LocalDateTime staleBefore = LocalDateTime.now().minus(this.resumeAfterMs, ChronoUnit.MILLIS);
+
+        for(UUID userId : this.userRepository.findStaleDeletionPending(staleBefore)){
+            log.info("Retomando o expurgo interrompido do usuário {}", userId);
+            this.purgeUser(userId);
+        }
+    }
+
+    private void purge(UUID userId){
+        try {
+            long deleted = 0;
+            int chunk;
+
+            do {
+                chunk = this.taskService.deleteTasksChunk(userId, this.chunkSize);
+                deleted += chunk;
+                this.userRepository.touchDeletionPending(userId, LocalDateTime.now());
+            } while (chunk == this.chunkSize);
+
+            this.userRepository.deleteUserById(userId);
+
+            log.info("Expurgo do usuário {} concluído: {} tasks removidas", userId, deleted);
+        } catch (RuntimeException e) {
+            log.error("Expurgo do usuário {} interrompido; será retomado", userId, e);
+        } finally {
+            this.running.remove(userId);
+        }
+    }
+}
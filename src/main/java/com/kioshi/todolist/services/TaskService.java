@@ -1,30 +1,56 @@
 package com.kioshi.todolist.services;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.kioshi.todolist.dtos.task.BatchTaskResultDTO;
+import com.kioshi.todolist.dtos.task.BatchTasksResponseDTO;
+import com.kioshi.todolist.dtos.task.CompleteTasksRequestDTO;
 import com.kioshi.todolist.dtos.task.CreateTaskRequestDTO;
 import com.kioshi.todolist.dtos.task.CreateTaskResponseDTO;
 import com.kioshi.todolist.dtos.task.DeleteAllTasksRequestDTO;
 import com.kioshi.todolist.dtos.task.DeleteAllTasksResponseDTO;
 import com.kioshi.todolist.dtos.task.DeleteTaskRequestDTO;
 import com.kioshi.todolist.dtos.task.DeleteTaskResponseDTO;
+import com.kioshi.todolist.dtos.task.GetTasksPageRequestDTO;
+import com.kioshi.todolist.dtos.task.GetTasksPageResponseDTO;
 import com.kioshi.todolist.dtos.task.GetTasksRequestDTO;
 import com.kioshi.todolist.dtos.task.GetTasksResponseDTO;
+import com.kioshi.todolist.dtos.task.SearchTasksRequestDTO;
+import com.kioshi.todolist.dtos.task.SearchTasksResponseDTO;
+import com.kioshi.todolist.dtos.task.TaskResponseDTO;
 import com.kioshi.todolist.dtos.task.UpdateTaskRequestDTO;
 import com.kioshi.todolist.dtos.task.UpdateTaskResponseDTO;
 import com.kioshi.todolist.entities.TaskEntity;
 import com.kioshi.todolist.entities.UserEntity;
-import com.kioshi.todolist.exceptions.auth.JWTInvalidTokenException;
+import com.kioshi.todolist.enums.BatchItemStatus;
+import com.kioshi.todolist.exceptions.task.BatchTooLargeException;
+import com.kioshi.todolist.exceptions.task.InvalidSearchQueryException;
 import com.kioshi.todolist.exceptions.task.TaskNotFoundException;
+import com.kioshi.todolist.exceptions.task.TaskVersionConflictException;
 import com.kioshi.todolist.exceptions.user.UserNotFoundException;
 import com.kioshi.todolist.repositories.TaskRepository;
+import com.kioshi.todolist.repositories.TaskRepository.UpdatedTaskRow;
 import com.kioshi.todolist.repositories.UserRepository;
+import com.kioshi.todolist.utils.TaskCursorUtil;
+import com.kioshi.todolist.utils.TaskCursorUtil.TaskCursor;
 
-import jakarta.transaction.Transactional;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 
 @Service
 public class TaskService {
@@ -35,7 +61,32 @@ public class TaskService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private TaskCursorUtil taskCursorUtil;
+
+    @Autowired
+    private TaskListVersionService taskListVersionService;
+
+    @Value("${app.tasks.page.default-size:50}")
+    private int defaultPageSize;
+
+    @Value("${app.tasks.page.max-size:200}")
+    private int maxPageSize;
+
+    @Value("${app.tasks.search.max-words:8}")
+    private int maxSearchWords;
+
+    @Value("${app.tasks.search.max-offset:10000}")
+    private long maxSearchOffset;
+
+    @Value("${app.tasks.batch.max-size:500}")
+    private int maxBatchSize;
+
+    @Autowired
+    private Validator validator;
+
     // CREATE TASK
+    @Transactional
     public CreateTaskResponseDTO create(CreateTaskRequestDTO createTaksRequestDTO, UUID id){
 
         UserEntity user = this.userRepository.findById(id)
@@ -52,89 +103,365 @@ public class TaskService {
         .build();
 
         TaskEntity savedTask = this.taskRepository.save(task);
+        this.taskListVersionService.increment(user.getId());
 
         return new CreateTaskResponseDTO(
             savedTask.getName(),
             savedTask.getContent(),
-            savedTask.getUserEntity().getId()
+            savedTask.getUserEntity().getId(),
+            savedTask.getVersion()
         );
     } 
 
+    // Lista e a versão dela (users.tasks_version) lidas do mesmo snapshot, para virar o ETag de GET /task/all
+    public record VersionedTasks(GetTasksResponseDTO response, long tasksVersion) {}
+
     // GET TASKS
+    @Transactional(readOnly = true)
     public GetTasksResponseDTO getTasks(GetTasksRequestDTO getTasksDTO){
+        return this.getTasksWithVersion(getTasksDTO).response();
+    }
 
-        this.userRepository.findById(getTasksDTO.getUserId())
-        .orElseThrow(() ->{
+    // REPEATABLE READ: os dois SELECTs usam o mesmo snapshot, na mesma conexão (primário ou réplica).
+    // Com a versão lida à parte no primário, uma réplica atrasada devolvia a lista antiga sob o ETag novo
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public VersionedTasks getTasksWithVersion(GetTasksRequestDTO getTasksDTO){
+
+        long tasksVersion = this.userRepository.findTasksVersionById(getTasksDTO.getUserId())
+        .orElseThrow(() -> {
             throw new UserNotFoundException();
         });
 
-        List<TaskEntity> tasks = this.taskRepository.findByUserEntity_Id(getTasksDTO.getUserId());
+        List<TaskResponseDTO> tasks = this.taskRepository.findAllByUserId(getTasksDTO.getUserId());
         
-        return new GetTasksResponseDTO(
-            tasks
+        return new VersionedTasks(new GetTasksResponseDTO(tasks), tasksVersion);
+    }
+
+    // GET TASKS (PAGINADO)
+    @Transactional(readOnly = true)
+    public GetTasksPageResponseDTO getTasksPage(GetTasksPageRequestDTO getTasksPageDTO){
+
+        if(!this.userRepository.existsById(getTasksPageDTO.getUserId())){
+            throw new UserNotFoundException();
+        }
+
+        int size = getTasksPageDTO.getSize() == null ? this.defaultPageSize : getTasksPageDTO.getSize();
+        size = Math.max(1, Math.min(size, this.maxPageSize));
+
+        // Busca uma task a mais só para saber se existe próxima página
+        Limit limit = Limit.of(size + 1);
+        List<TaskResponseDTO> tasks;
+
+        if(getTasksPageDTO.getCursor() == null || getTasksPageDTO.getCursor().isBlank()){
+            tasks = this.taskRepository.findFirstPage(getTasksPageDTO.getUserId(), getTasksPageDTO.getCompleted(), limit);
+        }else{
+            TaskCursor cursor = this.taskCursorUtil.decode(getTasksPageDTO.getCursor());
+            tasks = this.taskRepository.findPageAfter(
+                getTasksPageDTO.getUserId(),
+                getTasksPageDTO.getCompleted(),
+                cursor.createdAt(),
+                cursor.id(),
+                limit.max()
+            );
+        }
+
+        String nextCursor = null;
+
+        if(tasks.size() > size){
+            tasks = tasks.subList(0, size);
+            nextCursor = this.taskCursorUtil.encode(tasks.get(size - 1));
+        }
+
+        return new GetTasksPageResponseDTO(
+            tasks,
+            nextCursor
+        );
+    }
+
+    // SEARCH TASKS
+    @Transactional(readOnly = true)
+    public SearchTasksResponseDTO search(SearchTasksRequestDTO searchTasksRequestDTO){
+
+        String term = searchTasksRequestDTO.getQuery() == null ? "" : searchTasksRequestDTO.getQuery().strip();
+
+        // Só letras e números viram termos do tsquery, cada um como prefixo: nada do que o usuário digita chega como operador
+        List<String> words = Arrays.stream(term.toLowerCase().split("[^\\p{L}\\p{N}]+"))
+            .filter(word -> !word.isEmpty())
+            .limit(this.maxSearchWords)
+            .toList();
+
+        if(words.isEmpty()){
+            throw new InvalidSearchQueryException();
+        }
+
+        String tsQuery = words.stream()
+            .map(word -> word + ":*")
+            .collect(Collectors.joining(" & "));
+
+        int size = searchTasksRequestDTO.getSize() == null ? this.defaultPageSize : searchTasksRequestDTO.getSize();
+        size = Math.max(1, Math.min(size, this.maxPageSize));
+        int page = searchTasksRequestDTO.getPage() == null ? 0 : Math.max(0, searchTasksRequestDTO.getPage());
+
+        // Em long: page * size estoura int; e OFFSET alto obriga o banco a ranquear e descartar tudo antes dele
+        long offset = (long) page * size;
+
+        if(offset > this.maxSearchOffset){
+            throw new InvalidSearchQueryException(this.maxSearchOffset);
+        }
+
+        // Uma linha a mais só para saber se existe próxima página
+        List<TaskResponseDTO> tasks = this.taskRepository.search(
+            searchTasksRequestDTO.getUserId(),
+            tsQuery,
+            String.join(" ", words),
+            size + 1,
+            (int) offset
+        );
+
+        boolean hasNext = tasks.size() > size;
+
+        return new SearchTasksResponseDTO(
+            hasNext ? tasks.subList(0, size) : tasks,
+            page,
+            hasNext
         );
     }
 
     @Transactional
     public DeleteTaskResponseDTO deleteTask(DeleteTaskRequestDTO deleteTaskRequestDTO){
 
-        TaskEntity task = this.taskRepository.findById(deleteTaskRequestDTO.getId())
-        .orElseThrow(() ->{
-            throw new TaskNotFoundException();
-        });
+        int deleted = this.taskRepository.deleteByIdAndUserId(deleteTaskRequestDTO.getId(), deleteTaskRequestDTO.getUserId());
 
-        if(task.getUserEntity().getId().equals(deleteTaskRequestDTO.getId())){
-            throw new JWTInvalidTokenException();
+        if(deleted == 0){
+            throw new TaskNotFoundException();
         }
 
-        this.taskRepository.delete(task);
+        this.taskListVersionService.increment(deleteTaskRequestDTO.getUserId());
 
-        return new DeleteTaskResponseDTO(!this.taskRepository.existsById(task.getId()));
+        return new DeleteTaskResponseDTO(true);
     }
 
     @Transactional
     public DeleteAllTasksResponseDTO deleteAllTasks(DeleteAllTasksRequestDTO deleteAllTasksRequestDTO){
 
-        UserEntity user = this.userRepository.findById(deleteAllTasksRequestDTO.getUserId())
-        .orElseThrow(() -> {
-            throw new UserNotFoundException();
-        });
+        int deletedCount = this.taskRepository.deleteAllByUserId(deleteAllTasksRequestDTO.getUserId());
 
-        this.taskRepository.deleteByUserEntity_Id(user.getId());
+        // Só confere o usuário quando nada foi apagado: no caso comum são dois statements (DELETE + versão da lista)
+        if(deletedCount == 0){
+            if(!this.userRepository.existsById(deleteAllTasksRequestDTO.getUserId())){
+                throw new UserNotFoundException();
+            }
+        }else{
+            this.taskListVersionService.increment(deleteAllTasksRequestDTO.getUserId());
+        }
 
-        boolean deleted = this.taskRepository.findByUserEntity_Id(user.getId()).isEmpty();
+        return new DeleteAllTasksResponseDTO(true, deletedCount);
+    }
 
-        return new DeleteAllTasksResponseDTO(deleted);
+    // DELETE CHUNK (usado pelo expurgo assíncrono, uma transação curta por lote)
+    @Transactional
+    public int deleteTasksChunk(UUID userId, int chunkSize){
+        return this.taskRepository.deleteChunkByUserId(userId, chunkSize);
     }
 
     @Transactional
-    public UpdateTaskResponseDTO update(UpdateTaskRequestDTO updateTaskRequestDTO){
-        
-        TaskEntity task = this.taskRepository.findById(updateTaskRequestDTO.getId())
+    public UpdateTaskResponseDTO update(UpdateTaskRequestDTO updateTaskRequestDTO, UUID userId, Long expectedVersion){
+
+        UpdatedTaskRow updated = this.taskRepository.updateIfMatches(
+            updateTaskRequestDTO.getId(),
+            userId,
+            expectedVersion,
+            updateTaskRequestDTO.getName(),
+            updateTaskRequestDTO.getContent(),
+            updateTaskRequestDTO.getCompleted()
+        )
         .orElseThrow(() -> {
+            // Só no caminho de falha: distingue versão desatualizada (412) de task inexistente (404)
+            if(expectedVersion != null && this.taskRepository.existsByIdAndUserEntity_Id(updateTaskRequestDTO.getId(), userId)){
+                throw new TaskVersionConflictException();
+            }
             throw new TaskNotFoundException();
         });
 
-        if(updateTaskRequestDTO.getName() != null){
-            task.setName(updateTaskRequestDTO.getName());
+        this.taskListVersionService.increment(userId);
+
+        return new UpdateTaskResponseDTO(
+            updated.getId(),
+            updated.getName(),
+            updated.getContent(),
+            updated.getCompleted(),
+            updated.getVersion()
+        );  
+    }
+
+    // BATCH CREATE
+    @Transactional
+    public BatchTasksResponseDTO createBatch(List<CreateTaskRequestDTO> createTaskRequestDTOs, UUID userId){
+
+        checkBatchSize(createTaskRequestDTOs);
+
+        if(!this.userRepository.existsById(userId)){
+            throw new UserNotFoundException();
         }
 
-        if(updateTaskRequestDTO.getContent() != null){
-            task.setContent(updateTaskRequestDTO.getContent());
+        // Referência sem SELECT: a posse já foi validada acima, uma única vez para o lote inteiro
+        UserEntity user = this.userRepository.getReferenceById(userId);
+
+        List<BatchTaskResultDTO> results = new ArrayList<>(createTaskRequestDTOs.size());
+        List<TaskEntity> tasks = new ArrayList<>(createTaskRequestDTOs.size());
+        List<Integer> taskIndexes = new ArrayList<>(createTaskRequestDTOs.size());
+
+        for(int i = 0; i < createTaskRequestDTOs.size(); i++){
+            CreateTaskRequestDTO item = createTaskRequestDTOs.get(i);
+            String error = validate(item);
+
+            if(error != null){
+                results.add(new BatchTaskResultDTO(i, null, BatchItemStatus.INVALID, error));
+                continue;
+            }
+
+            tasks.add(TaskEntity.builder()
+            .name(item.getName())
+            .content(item.getContent())
+            .completed(false)
+            .userEntity(user)
+            .build());
+            taskIndexes.add(i);
         }
 
-        if(updateTaskRequestDTO.getCompleted() != null){
-            task.setCompleted(updateTaskRequestDTO.getCompleted());
+        List<TaskEntity> savedTasks = this.taskRepository.saveAll(tasks);
+
+        if(!savedTasks.isEmpty()){
+            this.taskListVersionService.increment(userId);
         }
 
-        TaskEntity savedTask = this.taskRepository.save(task);
+        for(int i = 0; i < savedTasks.size(); i++){
+            results.add(new BatchTaskResultDTO(taskIndexes.get(i), savedTasks.get(i).getId(), BatchItemStatus.CREATED, null));
+        }
 
-        return new UpdateTaskResponseDTO(
-            savedTask.getId(),
-            savedTask.getName(),
-            savedTask.getContent(),
-            savedTask.getCompleted()
-        );  
+        return toBatchResponse(results, savedTasks.size());
+    }
+
+    // BATCH UPDATE
+    @Transactional
+    public BatchTasksResponseDTO updateBatch(List<UpdateTaskRequestDTO> updateTaskRequestDTOs, UUID userId){
+
+        checkBatchSize(updateTaskRequestDTOs);
+
+        Set<UUID> ids = new HashSet<>();
+        for(UpdateTaskRequestDTO item : updateTaskRequestDTOs){
+            if(item != null && item.getId() != null){
+                ids.add(item.getId());
+            }
+        }
+
+        // Um único SELECT traz só as tasks do próprio usuário; as demais viram NOT_FOUND
+        Map<UUID, TaskEntity> tasks = this.taskRepository.findAllByIdInAndUserEntity_Id(ids, userId)
+        .stream()
+        .collect(Collectors.toMap(TaskEntity::getId, Function.identity()));
+
+        List<BatchTaskResultDTO> results = new ArrayList<>(updateTaskRequestDTOs.size());
+        int succeeded = 0;
+
+        for(int i = 0; i < updateTaskRequestDTOs.size(); i++){
+            UpdateTaskRequestDTO item = updateTaskRequestDTOs.get(i);
+            String error = validate(item);
+
+            if(error != null){
+                results.add(new BatchTaskResultDTO(i, item == null ? null : item.getId(), BatchItemStatus.INVALID, error));
+                continue;
+            }
+
+            TaskEntity task = tasks.get(item.getId());
+
+            if(task == null){
+                results.add(new BatchTaskResultDTO(i, item.getId(), BatchItemStatus.NOT_FOUND, new TaskNotFoundException().getMessage()));
+                continue;
+            }
+
+            // Mesma pré-condição do If-Match no PATCH /update; sem versão no item, vale a última escrita.
+            // Entre o SELECT e o flush, o @Version ainda protege o lote inteiro de escritas concorrentes
+            if(item.getVersion() != null && !item.getVersion().equals(task.getVersion())){
+                results.add(new BatchTaskResultDTO(i, item.getId(), BatchItemStatus.CONFLICT, new TaskVersionConflictException().getMessage()));
+                continue;
+            }
+
+            if(item.getName() != null){
+                task.setName(item.getName());
+            }
+
+            if(item.getContent() != null){
+                task.setContent(item.getContent());
+            }
+
+            if(item.getCompleted() != null){
+                task.setCompleted(item.getCompleted());
+            }
+
+            results.add(new BatchTaskResultDTO(i, task.getId(), BatchItemStatus.UPDATED, null));
+            succeeded++;
+        }
+
+        if(succeeded > 0){
+            this.taskListVersionService.increment(userId);
+        }
+
+        // Os UPDATEs saem em lote no flush do commit (hibernate.order_updates + jdbc.batch_size)
+        return toBatchResponse(results, succeeded);
+    }
+
+    // BATCH COMPLETE
+    @Transactional
+    public BatchTasksResponseDTO completeBatch(CompleteTasksRequestDTO completeTasksRequestDTO, UUID userId){
+
+        List<UUID> ids = completeTasksRequestDTO.getIds();
+        checkBatchSize(ids);
+
+        Set<UUID> ownedIds = new HashSet<>(this.taskRepository.findOwnedIds(ids, userId));
+
+        if(!ownedIds.isEmpty()){
+            this.taskRepository.completeAll(ownedIds, userId);
+            this.taskListVersionService.increment(userId);
+        }
+
+        List<BatchTaskResultDTO> results = new ArrayList<>(ids.size());
+
+        for(int i = 0; i < ids.size(); i++){
+            UUID id = ids.get(i);
+
+            if(ownedIds.contains(id)){
+                results.add(new BatchTaskResultDTO(i, id, BatchItemStatus.COMPLETED, null));
+            }else{
+                results.add(new BatchTaskResultDTO(i, id, BatchItemStatus.NOT_FOUND, new TaskNotFoundException().getMessage()));
+            }
+        }
+
+        int succeeded = (int) results.stream().filter(result -> result.getStatus() == BatchItemStatus.COMPLETED).count();
+        return toBatchResponse(results, succeeded);
+    }
+
+    private void checkBatchSize(List<?> items){
+        if(items == null || items.isEmpty() || items.size() > this.maxBatchSize){
+            throw new BatchTooLargeException(this.maxBatchSize);
+        }
+    }
+
+    private <T> String validate(T item){
+        if(item == null){
+            return "A task não pode ser nula";
+        }
+
+        Set<ConstraintViolation<T>> violations = this.validator.validate(item);
+
+        if(violations.isEmpty()){
+            return null;
+        }
+
+        return violations.iterator().next().getMessage();
+    }
+
+    private BatchTasksResponseDTO toBatchResponse(List<BatchTaskResultDTO> results, int succeeded){
+        results.sort((a, b) -> a.getIndex().compareTo(b.getIndex()));
+        return new BatchTasksResponseDTO(succeeded, results.size() - succeeded, results);
     }
-    
 }
@@ -0,0 +1,39 @@
+package com.kioshi.todolist.services;
+
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.kioshi.todolist.exceptions.user.UserNotFoundException;
+import com.kioshi.todolist.repositories.UserRepository;
+import com.kioshi.todolist.security.TokenVersionCache;
+
+// Troca de senha em uma transação curta: o hash já chega calculado, então nenhuma conexão fica presa no BCrypt.
+// Senha, tokenVersion e refresh tokens mudam juntos; a versão vem do banco e não de uma conta feita em Java.
+@Service
+public class UserCredentialsService {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private TokenVersionCache tokenVersionCache;
+
+    @Transactional
+    public void replacePassword(UUID userId, String encodedPassword){
+        int tokenVersion = this.userRepository.updatePasswordAndIncrementTokenVersion(userId, encodedPassword)
+        .orElseThrow(() -> {
+            throw new UserNotFoundException();
+        });
+
+        // Sessões abertas com a senha antiga não conseguem mais renovar o access token
+        this.refreshTokenService.revokeAll(userId);
+
+        this.tokenVersionCache.put(userId, tokenVersion);
+    }
+}
@@ -1,12 +1,22 @@
 package com.kioshi.todolist.services;
 
+import java.time.LocalDateTime;
+import java.util.Set;
 import java.util.UUID;
 
+import org.hibernate.exception.ConstraintViolationException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import com.kioshi.todolist.dtos.task.DeleteAllTasksRequestDTO;
 import com.kioshi.todolist.dtos.user.ChangePasswordRequestDTO;
 import com.kioshi.todolist.dtos.user.CreateUserRequestDTO;
 import com.kioshi.todolist.dtos.user.CreateUserResponseDTO;
@@ -16,6 +26,8 @@ import com.kioshi.todolist.dtos.user.GetProfileRequestDTO;
 import com.kioshi.todolist.dtos.user.GetProfileResponseDTO;
 import com.kioshi.todolist.dtos.user.LoginUserRequestDTO;
 import com.kioshi.todolist.dtos.user.LoginUserResponseDTO;
+import com.kioshi.todolist.dtos.user.RefreshTokenRequestDTO;
+import com.kioshi.todolist.dtos.user.RefreshTokenResponseDTO;
 import com.kioshi.todolist.dtos.user.ResetPasswordRequestDTO;
 import com.kioshi.todolist.dtos.user.SendVerificationCodeRequestDTO;
 import com.kioshi.todolist.dtos.user.SendVerificationCodeResponseDTO;
@@ -25,26 +37,51 @@ import com.kioshi.todolist.dtos.user.VerifyAccountRequestDTO;
 import com.kioshi.todolist.dtos.user.VerifyAccountResponseDTO;
 import com.kioshi.todolist.entities.UserEntity;
 import com.kioshi.todolist.enums.Permission;
+import com.kioshi.todolist.exceptions.auth.InvalidRefreshTokenException;
+import com.kioshi.todolist.exceptions.auth.PasswordHashingBusyException;
 import com.kioshi.todolist.exceptions.user.InvalidCredentialsException;
 import com.kioshi.todolist.exceptions.user.InvalidVerificationCodeException;
 import com.kioshi.todolist.exceptions.user.UserAlreadyExistsException;
 import com.kioshi.todolist.exceptions.user.UserNotFoundException;
+import com.kioshi.todolist.repositories.TaskRepository;
 import com.kioshi.todolist.repositories.UserRepository;
 import com.kioshi.todolist.security.JWTProvider;
+import com.kioshi.todolist.security.RateLimiter;
+import com.kioshi.todolist.security.RevokedTokenRegistry;
+import com.kioshi.todolist.security.TokenVersionCache;
+import com.kioshi.todolist.security.UserPrincipal;
+import com.kioshi.todolist.services.RefreshTokenService.RotatedRefreshToken;
 import com.kioshi.todolist.utils.VerificationCodeUtil;
 
-import jakarta.mail.MessagingException;
-import jakarta.transaction.Transactional;
-
 
 @Service
 public class UserService {
 
+    private static final Logger log = LoggerFactory.getLogger(UserService.class);
+
+    // Índices únicos da V2: só a violação deles significa "usuário já existe"
+    private static final Set<String> USER_UNIQUE_CONSTRAINTS = Set.of("ux_users_email", "ux_users_username");
+
     @Autowired
     private UserRepository userRepository;
 
     @Autowired
-    PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private RevokedTokenRegistry revokedTokenRegistry;
+
+    @Autowired
+    private TokenVersionCache tokenVersionCache;
+
+    @Autowired
+    private UserCredentialsService userCredentialsService;
 
     @Autowired
     private JWTProvider jwtProvider;
@@ -53,19 +90,25 @@ public class UserService {
     private VerificationCodeUtil verificationCodeUtil;
 
     @Autowired
-    private TaskService taskService;
+    private TaskRepository taskRepository;
 
+    @Autowired
+    private TaskPurgeService taskPurgeService;
+
+    // Acima deste número de tasks a exclusão da conta vira um expurgo assíncrono
+    @Value("${app.tasks.purge.async-threshold:10000}")
+    private long purgeAsyncThreshold;
+
+    // Proxy lazy: o EmailService (e o JavaMailSender atrás dele) só é criado no primeiro e-mail
+    @Lazy
     @Autowired
     private EmailService emailService;
 
     // CREATE USER
     public CreateUserResponseDTO create(CreateUserRequestDTO createUserRequestDTO){
-        this.userRepository.findByUsernameOrEmail(createUserRequestDTO.getUsername(), createUserRequestDTO.getEmail())
-        .ifPresent((user) -> {
-            throw new UserAlreadyExistsException();
-        });
+        this.rateLimiter.checkAccount(createUserRequestDTO.getEmail());
 
-        String passwordEncoded = this.passwordEncoder.encode(createUserRequestDTO.getPassword());
+        String passwordEncoded = this.passwordHashingService.encode(createUserRequestDTO.getPassword());
 
         UserEntity user = UserEntity.builder()
         .name(createUserRequestDTO.getName())
@@ -78,7 +121,16 @@ public class UserService {
         .permission(Permission.USER)
         .build();
 
-        UserEntity savedUser = userRepository.save(user);
+        // Sem consulta prévia: os índices únicos de email e username decidem, inclusive entre cadastros simultâneos
+        UserEntity savedUser;
+        try {
+            savedUser = this.userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            if(!isUserUniqueViolation(e)){
+                throw e;
+            }
+            throw new UserAlreadyExistsException();
+        }
 
         return new CreateUserResponseDTO(
             savedUser.getId(),
@@ -89,21 +141,33 @@ public class UserService {
         );
     }
 
+    private boolean isUserUniqueViolation(DataIntegrityViolationException e){
+        return e.getCause() instanceof ConstraintViolationException violation
+            && violation.getConstraintName() != null
+            && USER_UNIQUE_CONSTRAINTS.contains(violation.getConstraintName().toLowerCase());
+    }
+
     // LOGIN USER
     public LoginUserResponseDTO login(LoginUserRequestDTO loginUserRequestDTO) {
+        this.rateLimiter.checkAccount(loginUserRequestDTO.getEmail());
+
         UserEntity user = this.userRepository.findByEmail(loginUserRequestDTO.getEmail())
+        .filter(found -> found.getDeletionPendingAt() == null)
         .orElseThrow(() -> {
             throw new UserNotFoundException();
         });
 
-        var passwordMatches = this.passwordEncoder.matches(loginUserRequestDTO.getPassword(), user.getPassword());
+        var passwordMatches = this.passwordHashingService.matches(loginUserRequestDTO.getPassword(), user.getPassword());
 
         if(!passwordMatches){
             throw new InvalidCredentialsException();
         }
 
+        this.rehashIfOutdated(user, loginUserRequestDTO.getPassword());
+
         String role = "ROLE_" + user.getPermission().name();
-        String token = this.jwtProvider.createToken(user.getId(), role);
+        String token = this.jwtProvider.createToken(user.getId(), role, user.getTokenVersion());
+        this.tokenVersionCache.put(user.getId(), user.getTokenVersion());
 
         return new LoginUserResponseDTO(
             token, 
@@ -114,11 +178,53 @@ public class UserService {
             user.getPhoneNumber(),
             user.getCreatedAt(),
             user.getPermission(),
-            user.getVerified()
+            user.getVerified(),
+            this.refreshTokenService.issue(user.getId())
         ); 
     }
 
+    // REFRESH TOKEN
+    public RefreshTokenResponseDTO refresh(RefreshTokenRequestDTO refreshTokenRequestDTO){
+        RotatedRefreshToken rotated = this.refreshTokenService.rotate(refreshTokenRequestDTO.getRefreshToken());
+
+        UserEntity user = this.userRepository.findById(rotated.userId())
+        .filter(found -> found.getDeletionPendingAt() == null)
+        .orElseThrow(() -> {
+            throw new InvalidRefreshTokenException();
+        });
+
+        String token = this.jwtProvider.createToken(user.getId(), "ROLE_" + user.getPermission().name(), user.getTokenVersion());
+        this.tokenVersionCache.put(user.getId(), user.getTokenVersion());
+
+        return new RefreshTokenResponseDTO(token, rotated.refreshToken());
+    }
+
+    // LOGOUT
+    public void logout(UserPrincipal principal, RefreshTokenRequestDTO refreshTokenRequestDTO){
+        if(refreshTokenRequestDTO != null && refreshTokenRequestDTO.getRefreshToken() != null){
+            this.refreshTokenService.revoke(principal.id(), refreshTokenRequestDTO.getRefreshToken());
+        }
+
+        // O access token atual para de valer já, e não só no exp
+        this.revokedTokenRegistry.revoke(principal.tokenId(), LocalDateTime.now().plus(this.jwtProvider.getAccessTokenTtl()));
+    }
+
+    // Regrava o hash com o algoritmo e o custo atuais; se o pool de hashing estiver cheio, fica para o próximo login
+    private void rehashIfOutdated(UserEntity user, String rawPassword){
+        if(!this.passwordHashingService.needsRehash(user.getPassword())){
+            return;
+        }
+
+        try {
+            user.setPassword(this.passwordHashingService.encode(rawPassword));
+            this.userRepository.save(user);
+        } catch (PasswordHashingBusyException e) {
+            log.debug("Rehash da senha do usuário {} adiado: pool de hashing ocupado", user.getId());
+        }
+    }
+
     // GET PROFILE USER
+    @Transactional(readOnly = true)
     public GetProfileResponseDTO getProfile(GetProfileRequestDTO getProfileRequestDTO){
         UserEntity user = this.userRepository.findById(getProfileRequestDTO.getId())
         .orElseThrow(() -> {
@@ -139,15 +245,48 @@ public class UserService {
     // DELETE USER 
     @Transactional
     public DeleteUserResponseDTO delete(DeleteUserRequestDTO deleteUserRequestDTO){
-        UserEntity user = this.userRepository.findById(deleteUserRequestDTO.getId())
-        .orElseThrow(() -> {
+        UUID userId = deleteUserRequestDTO.getId();
+
+        // Contas muito grandes são expurgadas em lotes fora da requisição
+        if(this.taskRepository.hasMoreTasksThan(userId, this.purgeAsyncThreshold)){
+            return this.deleteInBackground(userId);
+        }
+
+        // As tasks e os refresh tokens saem junto pelo ON DELETE CASCADE das FKs; 0 linhas = usuário inexistente
+        int deleted = this.userRepository.deleteUserById(userId);
+
+        if(deleted == 0){
             throw new UserNotFoundException();
-        });
+        }
 
-        this.taskService.deleteAllTasks(new DeleteAllTasksRequestDTO(user.getId()));
-        this.userRepository.delete(user);
-        
-        return new DeleteUserResponseDTO(!this.userRepository.existsById(user.getId()));
+        // Sem isso os tokens do usuário removido valeriam até o próximo refresh do cache
+        this.tokenVersionCache.put(userId, TokenVersionCache.USER_NOT_FOUND);
+
+        return new DeleteUserResponseDTO(true, false);
+    }
+
+    // A marca fica gravada antes da resposta: a conta para de autenticar na hora e o expurgo sobrevive a um restart
+    private DeleteUserResponseDTO deleteInBackground(UUID userId){
+        int marked = this.userRepository.markDeletionPending(userId, LocalDateTime.now());
+
+        if(marked == 0 && !this.userRepository.existsById(userId)){
+            throw new UserNotFoundException();
+        }
+
+        if(marked > 0){
+            this.tokenVersionCache.put(userId, TokenVersionCache.USER_NOT_FOUND);
+            this.refreshTokenService.revokeAll(userId);
+
+            // Só depois do commit: antes dele o expurgo esbarraria no lock da linha do usuário
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit(){
+                    taskPurgeService.purgeUser(userId);
+                }
+            });
+        }
+
+        return new DeleteUserResponseDTO(false, true);
     }
 
     //UPDATE USER
@@ -178,7 +317,7 @@ public class UserService {
 
     // SEND VERIFICATION CODE
     @Transactional
-    public SendVerificationCodeResponseDTO sendVerificationCode(SendVerificationCodeRequestDTO sendVerificationCodeRequestDTO) throws MessagingException{
+    public SendVerificationCodeResponseDTO sendVerificationCode(SendVerificationCodeRequestDTO sendVerificationCodeRequestDTO){
 
         UserEntity user = this.userRepository.findById(sendVerificationCodeRequestDTO.getId())
         .orElseThrow(() -> {
@@ -192,14 +331,14 @@ public class UserService {
         String subject = "Código de Verificação ToDoList";
         String body = "Seu código de verificação é: " + verificationCode;
 
-        this.emailService.sendEmail(user.getEmail(), subject, body);
+        this.emailService.queueEmail(user.getEmail(), subject, body);
 
         return new SendVerificationCodeResponseDTO(true);
     }
 
     // VERIFY ACCOUNT
     @Transactional
-    public VerifyAccountResponseDTO verifyAccount(UUID id, VerifyAccountRequestDTO verifyAccountRequestDTO) throws MessagingException{
+    public VerifyAccountResponseDTO verifyAccount(UUID id, VerifyAccountRequestDTO verifyAccountRequestDTO){
 
         UserEntity user = this.userRepository.findById(id)
         .orElseThrow(() -> {
@@ -217,43 +356,45 @@ public class UserService {
         String subject = "Conta Verificada";
         String body = "Sua conta foi verificada!";
 
-        this.emailService.sendEmail(savedUser.getEmail(), subject, body);
+        this.emailService.queueEmail(savedUser.getEmail(), subject, body);
 
         return new VerifyAccountResponseDTO(savedUser.getVerified());
     }
 
     // CHANGE PASSWORD
     public void changePassword(UUID id, ChangePasswordRequestDTO changePasswordRequestDTO){
+        this.rateLimiter.checkAccount(id.toString());
 
         UserEntity user = this.userRepository.findById(id)
         .orElseThrow(() -> {
             throw new UserNotFoundException();
         });
 
-        boolean passwordMatches = this.passwordEncoder.matches(changePasswordRequestDTO.getCurrentPassword(), user.getPassword());
+        boolean passwordMatches = this.passwordHashingService.matches(changePasswordRequestDTO.getCurrentPassword(), user.getPassword());
 
         if(!passwordMatches){
             throw new InvalidCredentialsException();
         }
 
-        String newPasswordEncoded = this.passwordEncoder.encode(changePasswordRequestDTO.getNewPassword());
+        String newPasswordEncoded = this.passwordHashingService.encode(changePasswordRequestDTO.getNewPassword());
 
-        user.setPassword(newPasswordEncoded);
-        this.userRepository.save(user);
+        // Todos os JWTs já emitidos ficam com versão menor e passam a ser recusados
+        this.userCredentialsService.replacePassword(user.getId(), newPasswordEncoded);
     }
 
     // RESET PASSWORD
     public void resetPassword(ResetPasswordRequestDTO resetPasswordRequestDTO){
+        this.rateLimiter.checkAccount(resetPasswordRequestDTO.getEmail());
 
         UserEntity user = this.userRepository.findByEmail(resetPasswordRequestDTO.getEmail())
         .orElseThrow(() -> {
             throw new UserNotFoundException();
         });
 
-        String newPasswordEncoded = this.passwordEncoder.encode(resetPasswordRequestDTO.getNewPassword());
+        String newPasswordEncoded = this.passwordHashingService.encode(resetPasswordRequestDTO.getNewPassword());
 
-        user.setPassword(newPasswordEncoded);
-        this.userRepository.save(user);
+        // Todos os JWTs já emitidos ficam com versão menor e passam a ser recusados
+        this.userCredentialsService.replacePassword(user.getId(), newPasswordEncoded);
     }
 }
 
@@ -0,0 +1,40 @@
+package com.kioshi.todolist.utils;
+
+import org.springframework.stereotype.Component;
+
+import com.kioshi.todolist.exceptions.task.TaskVersionConflictException;
+
+// ETags de task: a própria @Version entre aspas ("3"); listas usam ETag fraco (W/"tasks-3")
+@Component
+public class ETagUtil {
+
+    public String toETag(Long version){
+        return "\"" + version + "\"";
+    }
+
+    public String toListETag(long tasksVersion){
+        return "W/\"tasks-" + tasksVersion + "\"";
+    }
+
+    // null = sem pré-condição (header ausente ou "*"); valor que não é uma versão nunca pode bater.
+    // If-Match usa comparação forte (RFC 9110 13.1.1): um ETag fraco nunca bate, nem com a mesma versão
+    public Long parseIfMatch(String ifMatch){
+        if(ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")){
+            return null;
+        }
+
+        String value = ifMatch.trim();
+
+        if(value.startsWith("W/")){
+            throw new TaskVersionConflictException();
+        }
+
+        value = value.replace("\"", "");
+
+        try{
+            return Long.parseLong(value);
+        }catch(NumberFormatException e){
+            throw new TaskVersionConflictException();
+        }
+    }
+}
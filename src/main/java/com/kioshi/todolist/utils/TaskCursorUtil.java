@@ -0,0 +1,42 @@
+package com.kioshi.todolist.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+import org.springframework.stereotype.Component;
+
+import com.kioshi.todolist.dtos.task.TaskResponseDTO;
+import com.kioshi.todolist.exceptions.task.InvalidTaskCursorException;
+
+@Component
+public class TaskCursorUtil {
+
+    // Cursor = base64url("createdAt|id"), posição da última task entregue na página
+    public record TaskCursor(LocalDateTime createdAt, UUID id) {}
+
+    public String encode(TaskResponseDTO task){
+        String raw = task.getCreatedAt().toString() + "|" + task.getId().toString();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public TaskCursor decode(String cursor){
+        try{
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+
+            if(separator < 0){
+                throw new InvalidTaskCursorException();
+            }
+
+            return new TaskCursor(
+                LocalDateTime.parse(raw.substring(0, separator)),
+                UUID.fromString(raw.substring(separator + 1))
+            );
+        }catch(IllegalArgumentException | DateTimeParseException e){
+            throw new InvalidTaskCursorException();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+-- Esquema inicial, equivalente ao que o Hibernate gerava com ddl-auto=update.
+-- IF NOT EXISTS permite aplicar sobre bancos criados antes das migrations.
+
+CREATE TABLE IF NOT EXISTS users (
+    id                 UUID         NOT NULL PRIMARY KEY,
+    name               VARCHAR(255),
+    username           VARCHAR(255),
+    password           VARCHAR(255),
+    email              VARCHAR(255),
+    phone_number       VARCHAR(255),
+    verification_code  VARCHAR(255),
+    verified           BOOLEAN,
+    permission         VARCHAR(255),
+    created_at         TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS tasks (
+    id          UUID         NOT NULL PRIMARY KEY,
+    name        VARCHAR(255),
+    content     VARCHAR(255),
+    completed   BOOLEAN,
+    user_id     UUID,
+    created_at  TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS email_outbox (
+    id               UUID          NOT NULL PRIMARY KEY,
+    recipient        VARCHAR(255),
+    subject          VARCHAR(255),
+    body             TEXT,
+    status           VARCHAR(255),
+    attempts         INTEGER,
+    next_attempt_at  TIMESTAMP(6),
+    last_error       VARCHAR(1000),
+    sent_at          TIMESTAMP(6),
+    created_at       TIMESTAMP(6)
+);
@@ -0,0 +1,25 @@
+-- Índices das consultas quentes: login/reset (email), cadastro (username/email) e listagem de tasks.
+-- Falha se já houver e-mails ou usernames duplicados; eles precisam ser resolvidos antes.
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_users_email ON users (email);
+CREATE UNIQUE INDEX IF NOT EXISTS ux_users_username ON users (username);
+
+CREATE INDEX IF NOT EXISTS idx_tasks_user_created_id ON tasks (user_id, created_at, id);
+
+CREATE INDEX IF NOT EXISTS idx_email_outbox_status_next_attempt ON email_outbox (status, next_attempt_at);
+
+-- Troca a FK gerada pelo Hibernate (nome aleatório) por uma com nome fixo e ON DELETE CASCADE
+DO $$
+DECLARE
+    fk_name TEXT;
+BEGIN
+    FOR fk_name IN
+        SELECT conname FROM pg_constraint
+        WHERE conrelid = 'tasks'::regclass AND contype = 'f'
+    LOOP
+        EXECUTE format('ALTER TABLE tasks DROP CONSTRAINT %I', fk_name);
+    END LOOP;
+END $$;
+
+ALTER TABLE tasks
+    ADD CONSTRAINT fk_tasks_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE;
@@ -0,0 +1,25 @@
+-- Refresh tokens opacos (só o SHA-256 é gravado), rotacionados a cada uso dentro de uma mesma família
+CREATE TABLE refresh_tokens (
+    id           UUID          NOT NULL PRIMARY KEY,
+    user_id      UUID          NOT NULL,
+    family_id    UUID          NOT NULL,
+    token_hash   VARCHAR(64)   NOT NULL,
+    expires_at   TIMESTAMP(6)  NOT NULL,
+    revoked_at   TIMESTAMP(6),
+    replaced_by  UUID,
+    created_at   TIMESTAMP(6),
+    CONSTRAINT fk_refresh_tokens_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+);
+
+CREATE UNIQUE INDEX ux_refresh_tokens_hash ON refresh_tokens (token_hash);
+CREATE INDEX idx_refresh_tokens_user ON refresh_tokens (user_id);
+CREATE INDEX idx_refresh_tokens_family ON refresh_tokens (family_id);
+
+-- jti de access tokens revogados antes do exp; lido de forma incremental por revoked_at em cada instância
+CREATE TABLE revoked_tokens (
+    token_id    UUID          NOT NULL PRIMARY KEY,
+    expires_at  TIMESTAMP(6)  NOT NULL,
+    revoked_at  TIMESTAMP(6)  NOT NULL
+);
+
+CREATE INDEX idx_revoked_tokens_revoked_at ON revoked_tokens (revoked_at);
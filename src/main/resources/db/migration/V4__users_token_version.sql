@@ -0,0 +1,2 @@
+-- Versão dos tokens do usuário: incrementada na troca/reset de senha, invalida todos os JWTs com versão menor
+ALTER TABLE users ADD COLUMN IF NOT EXISTS token_version INTEGER NOT NULL DEFAULT 0;
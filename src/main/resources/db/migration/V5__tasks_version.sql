@@ -0,0 +1,2 @@
+-- Versão para controle de concorrência otimista (@Version / ETag / If-Match)
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,2 @@
+-- Versão da lista de tasks do usuário: incrementada a cada alteração, vira o ETag fraco de GET /task/all
+ALTER TABLE users ADD COLUMN IF NOT EXISTS tasks_version BIGINT NOT NULL DEFAULT 0;
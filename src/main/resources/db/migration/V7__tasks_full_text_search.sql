@@ -0,0 +1,16 @@
+-- Busca de tasks (GET /api/v1/task/search): full-text em name + content e trigramas em name para prefixo/erro de digitação.
+-- btree_gin permite user_id dentro dos índices GIN, então o filtro por dono acontece no próprio índice.
+-- Os dois são "trusted" a partir do Postgres 13: o dono do banco pode criá-los sem superusuário.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE EXTENSION IF NOT EXISTS btree_gin;
+
+-- Coluna gerada: o Postgres mantém o tsvector a cada INSERT/UPDATE, sem trigger nem código na aplicação.
+-- Em tabelas grandes o ADD COLUMN reescreve a tabela; rode em janela de manutenção.
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('portuguese', coalesce(name, '')), 'A') ||
+        setweight(to_tsvector('portuguese', coalesce(content, '')), 'B')
+    ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_tasks_user_search ON tasks USING gin (user_id, search_vector);
+CREATE INDEX IF NOT EXISTS idx_tasks_user_name_trgm ON tasks USING gin (user_id, name gin_trgm_ops);
@@ -0,0 +1,4 @@
+-- Exclusão de conta em segundo plano: a marca bloqueia a conta e permite retomar o expurgo se a instância cair no meio
+ALTER TABLE users ADD COLUMN IF NOT EXISTS deletion_pending_at TIMESTAMP(6);
+
+CREATE INDEX IF NOT EXISTS idx_users_deletion_pending ON users (deletion_pending_at) WHERE deletion_pending_at IS NOT NULL;
@@ -34,7 +34,8 @@ public class TaskFactories {
             id, 
             faker.lorem().sentence(3, 5),
             faker.lorem().paragraph(),
-            true
+            true,
+            null
         );
     }
 }
@@ -0,0 +1,163 @@
+package com.kioshi.todolist.integration.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.kioshi.todolist.dtos.user.GetProfileResponseDTO;
+import com.kioshi.todolist.dtos.user.UpdateUserRequestDTO;
+import com.kioshi.todolist.entities.UserEntity;
+import com.kioshi.todolist.factories.UserFactories;
+import com.kioshi.todolist.repositories.UserRepository;
+import com.kioshi.todolist.utils.JWTGenerateTokenTest;
+
+// Réplica simulada: um segundo Postgres com o mesmo esquema que só recebe o que o teste copia para ele,
+// o que equivale a uma réplica com lag infinito
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Testcontainers
+public class ReplicaRoutingTest {
+
+    private static final String STALE_NAME = "Nome antigo na réplica";
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15.3")
+        .withDatabaseName("testDB")
+        .withUsername("test")
+        .withPassword("test");
+
+    @Container
+    static PostgreSQLContainer<?> replica = new PostgreSQLContainer<>("postgres:15.3")
+        .withDatabaseName("testDB")
+        .withUsername("test")
+        .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureDatasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("app.datasource.replica.url", replica::getJdbcUrl);
+        registry.add("app.datasource.replica.read-your-writes-ms", () -> "60000");
+    }
+
+    @BeforeAll
+    static void migrateReplica() {
+        Flyway.configure()
+            .dataSource(replica.getJdbcUrl(), replica.getUsername(), replica.getPassword())
+            .load()
+            .migrate();
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate testRestTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JWTGenerateTokenTest jwtGenerateTokenTest;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+
+    @BeforeEach
+    void setUp(){
+        testRestTemplate.getRestTemplate().setUriTemplateHandler(
+                new DefaultUriBuilderFactory("http://localhost:" + port)
+        );
+    }
+
+    @AfterEach
+    void cleanUp() {
+        this.userRepository.deleteAll();
+        this.replicaJdbcTemplate().update("DELETE FROM users");
+    }
+
+    @Test
+    @DisplayName("it should read from the replica until the user writes")
+    public void it_should_read_from_the_replica_until_the_user_writes() {
+
+        UserEntity user = this.userRepository.save(UserFactories.createUser());
+        this.copyUserToReplica(user);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", "Bearer " + this.jwtGenerateTokenTest.createTokenTest(user.getId(), "ROLE_ " + user.getPermission()));
+
+        ResponseEntity<GetProfileResponseDTO> fromReplica = testRestTemplate.exchange(
+            "/api/v1/user/profile", HttpMethod.GET, new HttpEntity<>(null, headers), GetProfileResponseDTO.class
+        );
+
+        assertEquals(HttpStatus.OK, fromReplica.getStatusCode(), "Status must be 200 (OK)");
+        assertEquals(STALE_NAME, fromReplica.getBody().getName(), "Read-only transactions must use the replica");
+
+        UpdateUserRequestDTO updateUserRequestDTO = UserFactories.buildUpdateUserRequestDTO();
+
+        ResponseEntity<String> update = testRestTemplate.exchange(
+            "/api/v1/user/update", HttpMethod.PATCH, new HttpEntity<>(updateUserRequestDTO, headers), String.class
+        );
+
+        assertEquals(HttpStatus.OK, update.getStatusCode(), "Status must be 200 (OK)");
+
+        ResponseEntity<GetProfileResponseDTO> afterWrite = testRestTemplate.exchange(
+            "/api/v1/user/profile", HttpMethod.GET, new HttpEntity<>(null, headers), GetProfileResponseDTO.class
+        );
+
+        assertEquals(updateUserRequestDTO.getName(), afterWrite.getBody().getName(), "The writer must read its own write from the primary");
+        assertEquals(
+            STALE_NAME,
+            this.replicaJdbcTemplate().queryForObject("SELECT name FROM users WHERE id = ?", String.class, user.getId()),
+            "Writes must never reach the replica"
+        );
+    }
+
+    // O pool "replica" da aplicação é read-only; o teste escreve na réplica por fora dele
+    private JdbcTemplate replicaJdbcTemplate() {
+        return new JdbcTemplate(new DriverManagerDataSource(replica.getJdbcUrl(), replica.getUsername(), replica.getPassword()));
+    }
+
+    // Copia a linha do primário com um nome diferente, para saber de qual banco a resposta veio
+    private void copyUserToReplica(UserEntity user) {
+        Map<String, Object> row = new JdbcTemplate(this.primaryDataSource)
+            .queryForMap("SELECT * FROM users WHERE id = ?", user.getId());
+        row.put("name", STALE_NAME);
+
+        String columns = String.join(", ", row.keySet());
+        String placeholders = row.keySet().stream().map(column -> "?").collect(Collectors.joining(", "));
+
+        this.replicaJdbcTemplate()
+            .update("INSERT INTO users (" + columns + ") VALUES (" + placeholders + ")", row.values().toArray());
+    }
+}
@@ -1,8 +1,17 @@
 package com.kioshi.todolist.integration.controllers;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import org.junit.jupiter.api.AfterEach;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -15,29 +24,40 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import com.kioshi.todolist.dtos.task.BatchTasksResponseDTO;
+import com.kioshi.todolist.dtos.task.CompleteTasksRequestDTO;
 import com.kioshi.todolist.dtos.task.CreateTaskRequestDTO;
 import com.kioshi.todolist.dtos.task.CreateTaskResponseDTO;
 import com.kioshi.todolist.dtos.task.DeleteAllTasksResponseDTO;
 import com.kioshi.todolist.dtos.task.DeleteTaskResponseDTO;
+import com.kioshi.todolist.dtos.task.GetTasksPageResponseDTO;
 import com.kioshi.todolist.dtos.task.GetTasksResponseDTO;
+import com.kioshi.todolist.dtos.task.SearchTasksResponseDTO;
 import com.kioshi.todolist.dtos.task.UpdateTaskRequestDTO;
 import com.kioshi.todolist.dtos.task.UpdateTaskResponseDTO;
+import com.kioshi.todolist.dtos.user.ChangePasswordRequestDTO;
 import com.kioshi.todolist.entities.TaskEntity;
 import com.kioshi.todolist.entities.UserEntity;
+import com.kioshi.todolist.enums.BatchItemStatus;
 import com.kioshi.todolist.exceptions.user.UserNotFoundException;
 import com.kioshi.todolist.factories.TaskFactories;
 import com.kioshi.todolist.factories.UserFactories;
 import com.kioshi.todolist.repositories.TaskRepository;
 import com.kioshi.todolist.repositories.UserRepository;
+import com.kioshi.todolist.security.TokenVersionCache;
 import com.kioshi.todolist.utils.JWTGenerateTokenTest;
+import com.kioshi.todolist.utils.SqlStatementBudget;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @Testcontainers
@@ -54,6 +74,8 @@ public class TaskControllerTest {
         registry.add("spring.datasource.url", postgres::getJdbcUrl);
         registry.add("spring.datasource.username", postgres::getUsername);
         registry.add("spring.datasource.password", postgres::getPassword);
+        // Contagem de statements por request no header X-Sql-Statements (SqlStatementBudget)
+        registry.add("app.sql.statement-count-header", () -> "true");
     }
 
     @LocalServerPort
@@ -74,6 +96,15 @@ public class TaskControllerTest {
     @Autowired
     private JWTGenerateTokenTest jwtGenerateTokenTest;
 
+    @Autowired
+    private TokenVersionCache tokenVersionCache;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
     private static String email = "johndoe@email.com";
 
 
@@ -177,6 +208,125 @@ public class TaskControllerTest {
         GetTasksResponseDTO body = response.getBody();
 
         assertEquals(2, body.getTasks().size(), "The size of tasks list must be 2");
+        // tokenVersion e versão da lista (primeiro request do usuário, caches frios) + versão e tasks no mesmo snapshot
+        SqlStatementBudget.assertAtMost(4, response, "GET /task/all");
+    }
+
+    @Test
+    @DisplayName("it should be able get tasks page by cursor")
+    public void it_should_be_able_get_tasks_page_by_cursor() {
+
+        UserEntity user = this.userRepository.findByEmail(email)
+        .orElseThrow(() -> {
+            throw new UserNotFoundException();
+        });
+
+        assertNotNull("The user must not be null", user);
+
+        for(int i = 0; i < 3; i++){
+            this.taskRepository.save(TaskFactories.createTask(user));
+        }
+
+        String tokenJWT = this.jwtGenerateTokenTest.createTokenTest(user.getId(), "ROLE_ " + user.getPermission());
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", "Bearer " + tokenJWT);
+
+        HttpEntity<Void> request = new HttpEntity<>(null, headers);
+
+        ResponseEntity<GetTasksPageResponseDTO> firstPage = testRestTemplate.exchange(
+            "/api/v1/task/page?size=2",
+            HttpMethod.GET,
+            request,
+            GetTasksPageResponseDTO.class
+        );
+
+        assertEquals(HttpStatus.OK, firstPage.getStatusCode(), "Status must be 200 (OK)");
+        assertNotNull("The response body must not be null", firstPage.getBody());
+        assertEquals(2, firstPage.getBody().getTasks().size(), "The first page must have 2 tasks");
+        assertNotNull("The first page must have a next cursor", firstPage.getBody().getNextCursor());
+
+        ResponseEntity<GetTasksPageResponseDTO> secondPage = testRestTemplate.exchange(
+            "/api/v1/task/page?size=2&cursor=" + firstPage.getBody().getNextCursor(),
+            HttpMethod.GET,
+            request,
+            GetTasksPageResponseDTO.class
+        );
+
+        assertEquals(HttpStatus.OK, secondPage.getStatusCode(), "Status must be 200 (OK)");
+        assertNotNull("The response body must not be null", secondPage.getBody());
+        assertEquals(1, secondPage.getBody().getTasks().size(), "The second page must have 1 task");
+        assertNull("The last page must not have a next cursor", secondPage.getBody().getNextCursor());
+
+        // Com 3 linhas o planner prefere seq scan; desligado, o plano mostra se o cursor entra no Index Cond
+        List<String> plan = this.transactionTemplate.execute(status -> {
+            this.namedParameterJdbcTemplate.getJdbcTemplate().execute("SET LOCAL enable_seqscan = off");
+
+            MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("userId", user.getId())
+                .addValue("completed", null)
+                .addValue("createdAt", LocalDateTime.now().minusDays(1))
+                .addValue("id", UUID.randomUUID())
+                .addValue("limit", 3);
+
+            return this.namedParameterJdbcTemplate.queryForList("EXPLAIN " + TaskRepository.PAGE_AFTER_SQL, params, String.class);
+        });
+
+        String planText = String.join("\n", plan);
+        assertTrue(planText.contains("idx_tasks_user_created_id"), "The page query must use idx_tasks_user_created_id:\n" + planText);
+        assertTrue(
+            plan.stream().anyMatch(line -> line.contains("Index Cond") && line.contains("created_at")),
+            "The cursor must be an index condition, not a filter:\n" + planText
+        );
+    }
+
+    @Test
+    @DisplayName("it should search the user's tasks by prefix and by typo")
+    public void it_should_search_the_users_tasks_by_prefix_and_by_typo() {
+
+        UserEntity user = this.userRepository.findByEmail(email)
+        .orElseThrow(() -> {
+            throw new UserNotFoundException();
+        });
+
+        UserEntity otherUser = this.userRepository.save(UserFactories.createUser());
+
+        TaskEntity groceries = this.taskRepository.save(TaskEntity.builder()
+            .name("Comprar pão").content("Na padaria da esquina").completed(false).userEntity(user).build());
+        this.taskRepository.save(TaskEntity.builder()
+            .name("Pagar boleto").content("Vence sexta").completed(false).userEntity(user).build());
+        this.taskRepository.save(TaskEntity.builder()
+            .name("Comprar leite").content("Tarefa de outro usuário").completed(false).userEntity(otherUser).build());
+
+        HttpHeaders headers = this.authenticatedHeaders(user);
+
+        ResponseEntity<SearchTasksResponseDTO> prefix = testRestTemplate.exchange(
+            "/api/v1/task/search?q=compr", HttpMethod.GET, new HttpEntity<>(null, headers), SearchTasksResponseDTO.class
+        );
+
+        assertEquals(HttpStatus.OK, prefix.getStatusCode(), "Status must be 200 (OK)");
+        assertEquals(1, prefix.getBody().getTasks().size(), "Only the caller's matching task must be returned");
+        assertEquals(groceries.getId(), prefix.getBody().getTasks().get(0).getId(), "Prefix must match the task name");
+        // Busca ranqueada e paginada em um único SELECT
+        assertEquals(1, SqlStatementBudget.statements(prefix), "Search must run a single statement");
+
+        ResponseEntity<SearchTasksResponseDTO> typo = testRestTemplate.exchange(
+            "/api/v1/task/search?q=comprr", HttpMethod.GET, new HttpEntity<>(null, headers), SearchTasksResponseDTO.class
+        );
+
+        assertEquals(1, typo.getBody().getTasks().size(), "Trigram similarity must tolerate a typo");
+        assertEquals(groceries.getId(), typo.getBody().getTasks().get(0).getId(), "Typo must match the task name");
+
+        ResponseEntity<String> blank = testRestTemplate.exchange(
+            "/api/v1/task/search?q=%20!", HttpMethod.GET, new HttpEntity<>(null, headers), String.class
+        );
+
+        assertEquals(HttpStatus.BAD_REQUEST, blank.getStatusCode(), "A query without words must return 400");
+
+        ResponseEntity<String> farPage = testRestTemplate.exchange(
+            "/api/v1/task/search?q=compr&page=2147483647", HttpMethod.GET, new HttpEntity<>(null, headers), String.class
+        );
+
+        assertEquals(HttpStatus.BAD_REQUEST, farPage.getStatusCode(), "A page beyond the max offset must return 400");
     }
 
     @Test
@@ -216,6 +366,65 @@ public class TaskControllerTest {
         assertEquals(true, body.getDeleted(), "Deleted must be true");
     }
 
+    @Test
+    @DisplayName("it should delete a task in a single ownership-checked statement")
+    public void it_should_delete_a_task_in_a_single_ownership_checked_statement() {
+
+        UserEntity user = this.userRepository.findByEmail(email)
+        .orElseThrow(() -> {
+            throw new UserNotFoundException();
+        });
+
+        UserEntity otherUser = this.userRepository.save(UserFactories.createUser());
+        TaskEntity ownTask = this.taskRepository.save(TaskFactories.createTask(user));
+        TaskEntity otherTask = this.taskRepository.save(TaskFactories.createTask(otherUser));
+
+        HttpHeaders headers = this.authenticatedHeaders(user);
+
+        ResponseEntity<String> forbidden = testRestTemplate.exchange(
+            "/api/v1/task/delete/" + otherTask.getId(), HttpMethod.DELETE, new HttpEntity<>(null, headers), String.class
+        );
+
+        assertEquals(HttpStatus.NOT_FOUND, forbidden.getStatusCode(), "Another user's task must return 404");
+        assertEquals(1, SqlStatementBudget.statements(forbidden), "Only the conditional DELETE must run");
+        assertTrue(this.taskRepository.existsById(otherTask.getId()), "Another user's task must not be deleted");
+
+        ResponseEntity<DeleteTaskResponseDTO> deleted = testRestTemplate.exchange(
+            "/api/v1/task/delete/" + ownTask.getId(), HttpMethod.DELETE, new HttpEntity<>(null, headers), DeleteTaskResponseDTO.class
+        );
+
+        assertEquals(HttpStatus.OK, deleted.getStatusCode(), "Status must be 200 (OK)");
+        // DELETE + incremento da versão da lista (ETag de /task/all)
+        assertEquals(2, SqlStatementBudget.statements(deleted), "DELETE and list version bump only");
+        assertFalse(this.taskRepository.existsById(ownTask.getId()), "Own task must be deleted");
+    }
+
+    @Test
+    @DisplayName("it should not update another user's task")
+    public void it_should_not_update_another_users_task() {
+
+        UserEntity user = this.userRepository.findByEmail(email)
+        .orElseThrow(() -> {
+            throw new UserNotFoundException();
+        });
+
+        UserEntity otherUser = this.userRepository.save(UserFactories.createUser());
+        TaskEntity otherTask = this.taskRepository.save(TaskFactories.createTask(otherUser));
+
+        HttpHeaders headers = this.authenticatedHeaders(user);
+
+        ResponseEntity<String> response = testRestTemplate.exchange(
+            "/api/v1/task/update",
+            HttpMethod.PATCH,
+            new HttpEntity<>(TaskFactories.buildUpdateTaskRequestDTO(otherTask.getId()), headers),
+            String.class
+        );
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode(), "Another user's task must return 404");
+        assertEquals(1, SqlStatementBudget.statements(response), "Only the conditional UPDATE must run");
+        assertEquals(otherTask.getName(), this.taskRepository.findById(otherTask.getId()).orElseThrow().getName(), "Task must be unchanged");
+    }
+
     @Test
     @DisplayName("it should be able delete all tasks from a user")
     public void it_should_be_able_delete_all_tasks_from_a_user() {
@@ -254,6 +463,10 @@ public class TaskControllerTest {
         DeleteAllTasksResponseDTO body = response.getBody();
 
         assertEquals(true, body.getDeleted(), "Deleted must be true");
+        assertEquals(2, body.getDeletedCount(), "Deleted count must match the user's tasks");
+        assertEquals(0, this.taskRepository.countByUserEntity_Id(user.getId()), "No task must remain");
+        // tokenVersion (cache frio) + DELETE + versão da lista
+        SqlStatementBudget.assertAtMost(3, response, "DELETE /task/deleteAll");
     }
 
     @Test
@@ -296,4 +509,238 @@ public class TaskControllerTest {
         assertEquals(updateTaskRequestDTO.getContent(), body.getContent(), "Content must be the same");
         assertEquals(updateTaskRequestDTO.getCompleted(), body.getCompleted(), "Completed must be the same");
     }
+
+    @Test
+    @DisplayName("it should return 304 while the task list is unchanged")
+    public void it_should_return_304_while_the_task_list_is_unchanged() {
+
+        UserEntity user = this.userRepository.findByEmail(email)
+        .orElseThrow(() -> {
+            throw new UserNotFoundException();
+        });
+
+        String tokenJWT = this.jwtGenerateTokenTest.createTokenTest(user.getId(), "ROLE_ " + user.getPermission());
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", "Bearer " + tokenJWT);
+
+        ResponseEntity<GetTasksResponseDTO> first = testRestTemplate.exchange(
+            "/api/v1/task/all", HttpMethod.GET, new HttpEntity<>(null, headers), GetTasksResponseDTO.class
+        );
+
+        assertEquals(HttpStatus.OK, first.getStatusCode(), "Status must be 200 (OK)");
+        String eTag = first.getHeaders().getETag();
+        assertNotNull("ETag must be present", eTag);
+
+        headers.setIfNoneMatch(eTag);
+
+        ResponseEntity<GetTasksResponseDTO> unchanged = testRestTemplate.exchange(
+            "/api/v1/task/all", HttpMethod.GET, new HttpEntity<>(null, headers), GetTasksResponseDTO.class
+        );
+
+        assertEquals(HttpStatus.NOT_MODIFIED, unchanged.getStatusCode(), "Unchanged list must return 304");
+
+        CreateTaskRequestDTO createTaskRequestDTO = TaskFactories.buildCreateTaskRequestDTO();
+        testRestTemplate.exchange(
+            "/api/v1/task/create", HttpMethod.POST, new HttpEntity<>(createTaskRequestDTO, headers), CreateTaskResponseDTO.class
+        );
+
+        ResponseEntity<GetTasksResponseDTO> changed = testRestTemplate.exchange(
+            "/api/v1/task/all", HttpMethod.GET, new HttpEntity<>(null, headers), GetTasksResponseDTO.class
+        );
+
+        assertEquals(HttpStatus.OK, changed.getStatusCode(), "Changed list must return 200");
+        assertEquals(1, changed.getBody().getTasks().size(), "The new task must be listed");
+        assertFalse(eTag.equals(changed.getHeaders().getETag()), "ETag must change with the list");
+    }
+
+    @Test
+    @DisplayName("it should keep the task list version monotonic during a password change")
+    public void it_should_keep_the_task_list_version_monotonic_during_a_password_change() throws Exception {
+
+        UserEntity user = UserFactories.createUser();
+        String password = user.getPassword();
+        user.setPassword(this.passwordEncoder.encode(password));
+        this.userRepository.save(user);
+
+        long initialVersion = this.userRepository.findTasksVersionById(user.getId()).orElseThrow();
+        HttpHeaders headers = this.authenticatedHeaders(user);
+
+        // O BCrypt da troca de senha abre a janela em que o save() do usuário desfazia os incrementos das tasks
+        CompletableFuture<ResponseEntity<Void>> changePassword = CompletableFuture.supplyAsync(() -> testRestTemplate.exchange(
+            "/api/v1/user/change-password",
+            HttpMethod.POST,
+            new HttpEntity<>(new ChangePasswordRequestDTO(password, "nova-senha-12345"), headers),
+            Void.class
+        ));
+
+        int created = 0;
+        do {
+            ResponseEntity<String> response = testRestTemplate.exchange(
+                "/api/v1/task/create",
+                HttpMethod.POST,
+                new HttpEntity<>(TaskFactories.buildCreateTaskRequestDTO(), headers),
+                String.class
+            );
+            if(response.getStatusCode().equals(HttpStatus.CREATED)) created++;
+        } while (!changePassword.isDone());
+
+        assertEquals(HttpStatus.NO_CONTENT, changePassword.get(1, TimeUnit.MINUTES).getStatusCode(), "Password change must succeed");
+        assertEquals(
+            initialVersion + created,
+            this.userRepository.findTasksVersionById(user.getId()).orElseThrow(),
+            "Every task create must move the list version forward exactly once"
+        );
+    }
+
+    @Test
+    @DisplayName("it should reject an update with a stale If-Match")
+    public void it_should_reject_an_update_with_a_stale_if_match() {
+
+        UserEntity user = this.userRepository.findByEmail(email)
+        .orElseThrow(() -> {
+            throw new UserNotFoundException();
+        });
+
+        TaskEntity task = this.taskRepository.save(TaskFactories.createTask(user));
+        String staleETag = "\"" + task.getVersion() + "\"";
+
+        String tokenJWT = this.jwtGenerateTokenTest.createTokenTest(user.getId(), "ROLE_ " + user.getPermission());
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", "Bearer " + tokenJWT);
+        headers.setIfMatch(staleETag);
+
+        ResponseEntity<UpdateTaskResponseDTO> first = testRestTemplate.exchange(
+            "/api/v1/task/update",
+            HttpMethod.PATCH,
+            new HttpEntity<>(TaskFactories.buildUpdateTaskRequestDTO(task.getId()), headers),
+            UpdateTaskResponseDTO.class
+        );
+
+        assertEquals(HttpStatus.OK, first.getStatusCode(), "Status must be 200 (OK)");
+        assertEquals("\"" + (task.getVersion() + 1) + "\"", first.getHeaders().getETag(), "ETag must carry the new version");
+
+        // Segundo dispositivo ainda com a versão antiga
+        ResponseEntity<String> second = testRestTemplate.exchange(
+            "/api/v1/task/update",
+            HttpMethod.PATCH,
+            new HttpEntity<>(TaskFactories.buildUpdateTaskRequestDTO(task.getId()), headers),
+            String.class
+        );
+
+        assertEquals(HttpStatus.PRECONDITION_FAILED, second.getStatusCode(), "Stale If-Match must return 412");
+        assertEquals(first.getBody().getName(), this.taskRepository.findById(task.getId()).orElseThrow().getName(), "First update must be kept");
+
+        // Mesmo com a versão atual, If-Match usa comparação forte e um ETag fraco nunca bate
+        headers.setIfMatch("W/" + first.getHeaders().getETag());
+        ResponseEntity<String> weak = testRestTemplate.exchange(
+            "/api/v1/task/update",
+            HttpMethod.PATCH,
+            new HttpEntity<>(TaskFactories.buildUpdateTaskRequestDTO(task.getId()), headers),
+            String.class
+        );
+
+        assertEquals(HttpStatus.PRECONDITION_FAILED, weak.getStatusCode(), "A weak If-Match must return 412");
+    }
+
+    @Test
+    @DisplayName("it should be able create and complete tasks in batch")
+    public void it_should_be_able_create_and_complete_tasks_in_batch() {
+
+        UserEntity user = this.userRepository.findByEmail(email)
+        .orElseThrow(() -> {
+            throw new UserNotFoundException();
+        });
+
+        assertNotNull("The user must not be null", user);
+
+        String tokenJWT = this.jwtGenerateTokenTest.createTokenTest(user.getId(), "ROLE_ " + user.getPermission());
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", "Bearer " + tokenJWT);
+
+        List<CreateTaskRequestDTO> createTaskRequestDTOs = List.of(
+            TaskFactories.buildCreateTaskRequestDTO(),
+            TaskFactories.buildCreateTaskRequestDTO(),
+            new CreateTaskRequestDTO("", "sem nome")
+        );
+
+        ResponseEntity<BatchTasksResponseDTO> createResponse = testRestTemplate.exchange(
+            "/api/v1/task/batch/create",
+            HttpMethod.POST,
+            new HttpEntity<>(createTaskRequestDTOs, headers),
+            BatchTasksResponseDTO.class
+        );
+
+        assertEquals(HttpStatus.OK, createResponse.getStatusCode(), "Status must be 200 (OK)");
+        assertNotNull("The response body must not be null", createResponse.getBody());
+        assertEquals(2, createResponse.getBody().getSucceeded(), "Two tasks must be created");
+        assertEquals(BatchItemStatus.INVALID, createResponse.getBody().getResults().get(2).getStatus(), "The task without name must be invalid");
+        assertEquals(2, this.taskRepository.findByUserEntity_Id(user.getId()).size(), "Two tasks must be persisted");
+
+        List<UUID> ids = List.of(
+            createResponse.getBody().getResults().get(0).getId(),
+            createResponse.getBody().getResults().get(1).getId(),
+            UUID.randomUUID()
+        );
+
+        ResponseEntity<BatchTasksResponseDTO> completeResponse = testRestTemplate.exchange(
+            "/api/v1/task/batch/complete",
+            HttpMethod.PATCH,
+            new HttpEntity<>(new CompleteTasksRequestDTO(ids), headers),
+            BatchTasksResponseDTO.class
+        );
+
+        assertEquals(HttpStatus.OK, completeResponse.getStatusCode(), "Status must be 200 (OK)");
+        assertEquals(2, completeResponse.getBody().getSucceeded(), "Two tasks must be completed");
+        assertEquals(BatchItemStatus.NOT_FOUND, completeResponse.getBody().getResults().get(2).getStatus(), "Unknown task must be not found");
+    }
+
+    @Test
+    @DisplayName("it should validate each item and check versions in batch update")
+    public void it_should_validate_each_item_and_check_versions_in_batch_update() {
+
+        UserEntity user = this.userRepository.findByEmail(email)
+        .orElseThrow(() -> {
+            throw new UserNotFoundException();
+        });
+
+        TaskEntity task = this.taskRepository.save(TaskFactories.createTask(user));
+        TaskEntity otherTask = this.taskRepository.save(TaskFactories.createTask(user));
+        TaskEntity lastWriterTask = this.taskRepository.save(TaskFactories.createTask(user));
+
+        List<UpdateTaskRequestDTO> updateTaskRequestDTOs = List.of(
+            new UpdateTaskRequestDTO(task.getId(), "Nome novo", null, null, task.getVersion()),
+            new UpdateTaskRequestDTO(otherTask.getId(), " ", null, null, null),
+            new UpdateTaskRequestDTO(otherTask.getId(), "Nome novo", null, null, otherTask.getVersion() + 1),
+            new UpdateTaskRequestDTO(null, "Nome novo", null, null, null),
+            new UpdateTaskRequestDTO(lastWriterTask.getId(), null, null, true, null)
+        );
+
+        ResponseEntity<BatchTasksResponseDTO> response = testRestTemplate.exchange(
+            "/api/v1/task/batch/update",
+            HttpMethod.PATCH,
+            new HttpEntity<>(updateTaskRequestDTOs, authenticatedHeaders(user)),
+            BatchTasksResponseDTO.class
+        );
+
+        assertEquals(HttpStatus.OK, response.getStatusCode(), "Status must be 200 (OK)");
+        assertNotNull("The response body must not be null", response.getBody());
+        assertEquals(2, response.getBody().getSucceeded(), "Only the valid, up to date items must be updated");
+        assertEquals(BatchItemStatus.UPDATED, response.getBody().getResults().get(0).getStatus(), "The item with the current version must be updated");
+        assertEquals(BatchItemStatus.INVALID, response.getBody().getResults().get(1).getStatus(), "A blank name must be invalid");
+        assertEquals(BatchItemStatus.CONFLICT, response.getBody().getResults().get(2).getStatus(), "A stale version must be a conflict");
+        assertEquals(BatchItemStatus.INVALID, response.getBody().getResults().get(3).getStatus(), "An item without id must be invalid");
+        // Sem versão no item o lote é last-writer-wins, como o PATCH /update sem If-Match
+        assertEquals(BatchItemStatus.UPDATED, response.getBody().getResults().get(4).getStatus(), "An item without version must be updated");
+
+        assertEquals(otherTask.getName(), this.taskRepository.findById(otherTask.getId()).orElseThrow().getName(), "Rejected items must not change the task");
+    }
+
+    // Token com a versão já em cache: o SecurityFilter não soma queries à contagem
+    private HttpHeaders authenticatedHeaders(UserEntity user) {
+        this.tokenVersionCache.put(user.getId(), user.getTokenVersion());
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", "Bearer " + this.jwtGenerateTokenTest.createTokenTest(user.getId(), "ROLE_ " + user.getPermission()));
+        return headers;
+    }
 }
@@ -1,10 +1,21 @@
 package com.kioshi.todolist.integration.controllers;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import org.junit.jupiter.api.AfterEach;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -16,7 +27,9 @@ import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
@@ -33,6 +46,8 @@ import com.kioshi.todolist.dtos.user.DeleteUserResponseDTO;
 import com.kioshi.todolist.dtos.user.GetProfileResponseDTO;
 import com.kioshi.todolist.dtos.user.LoginUserRequestDTO;
 import com.kioshi.todolist.dtos.user.LoginUserResponseDTO;
+import com.kioshi.todolist.dtos.user.RefreshTokenRequestDTO;
+import com.kioshi.todolist.dtos.user.RefreshTokenResponseDTO;
 import com.kioshi.todolist.dtos.user.ResetPasswordRequestDTO;
 import com.kioshi.todolist.dtos.user.SendVerificationCodeResponseDTO;
 import com.kioshi.todolist.dtos.user.UpdateUserRequestDTO;
@@ -41,8 +56,11 @@ import com.kioshi.todolist.dtos.user.VerifyAccountRequestDTO;
 import com.kioshi.todolist.dtos.user.VerifyAccountResponseDTO;
 import com.kioshi.todolist.entities.UserEntity;
 import com.kioshi.todolist.exceptions.user.UserNotFoundException;
+import com.kioshi.todolist.factories.TaskFactories;
 import com.kioshi.todolist.factories.UserFactories;
+import com.kioshi.todolist.repositories.TaskRepository;
 import com.kioshi.todolist.repositories.UserRepository;
+import com.kioshi.todolist.utils.SqlStatementBudget;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @Testcontainers
@@ -60,6 +78,12 @@ public class UserControllerTest {
         registry.add("spring.datasource.url", postgres::getJdbcUrl);
         registry.add("spring.datasource.username", postgres::getUsername);
         registry.add("spring.datasource.password", postgres::getPassword);
+        // Todos os requests saem do mesmo IP e o teste de concorrência repete contas de propósito
+        registry.add("app.security.rate-limit.enabled", () -> "false");
+        registry.add("app.sql.statement-count-header", () -> "true");
+        // Contas com mais de 2 tasks vão para o expurgo em segundo plano
+        registry.add("app.tasks.purge.async-threshold", () -> "2");
+        registry.add("app.tasks.purge.chunk-size", () -> "2");
     }
 
 
@@ -72,6 +96,9 @@ public class UserControllerTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private TaskRepository taskRepository;
+
     @Autowired
     private PasswordEncoder passwordEncoder;
 
@@ -117,6 +144,67 @@ public class UserControllerTest {
         assertEquals(createUserRequestDTO.getPhoneNumber(), body.getPhoneNumber(), "Phone number must match");
     }
 
+    @Test
+    @DisplayName("it should not create duplicated users under concurrent sign-ups")
+    public void it_should_not_create_duplicated_users_under_concurrent_sign_ups() throws Exception {
+
+        int distinctUsers = 50;
+        int duplicatesPerUser = 10;
+
+        List<CreateUserRequestDTO> requests = new ArrayList<>();
+        for (int i = 0; i < distinctUsers; i++) {
+            CreateUserRequestDTO createUserRequestDTO = UserFactories.buildCreateUserRequestDTO();
+            createUserRequestDTO.setUsername(createUserRequestDTO.getUsername() + i);
+            createUserRequestDTO.setEmail(i + createUserRequestDTO.getEmail());
+            for (int j = 0; j < duplicatesPerUser; j++) {
+                requests.add(createUserRequestDTO);
+            }
+        }
+        Collections.shuffle(requests);
+
+        ExecutorService executor = Executors.newFixedThreadPool(64);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<HttpStatusCode>> statuses = new ArrayList<>();
+        long[] latencies = new long[requests.size()];
+
+        for (int i = 0; i < requests.size(); i++) {
+            int index = i;
+            CreateUserRequestDTO createUserRequestDTO = requests.get(i);
+            statuses.add(executor.submit(() -> {
+                start.await();
+                long begin = System.nanoTime();
+                ResponseEntity<String> response = testRestTemplate.exchange(
+                    "/api/v1/user/create",
+                    HttpMethod.POST,
+                    new HttpEntity<>(createUserRequestDTO),
+                    String.class
+                );
+                latencies[index] = System.nanoTime() - begin;
+                return response.getStatusCode();
+            }));
+        }
+
+        start.countDown();
+
+        int created = 0;
+        int conflicts = 0;
+        for (Future<HttpStatusCode> status : statuses) {
+            HttpStatusCode code = status.get(2, TimeUnit.MINUTES);
+            if (code.equals(HttpStatus.CREATED)) created++;
+            if (code.equals(HttpStatus.CONFLICT)) conflicts++;
+        }
+        executor.shutdown();
+
+        Arrays.sort(latencies);
+        long p99 = latencies[(int) Math.ceil(latencies.length * 0.99) - 1];
+        // Duplicados recusados pelo índice único não podem segurar os demais até o timeout do pool de hashing (5s)
+        assertTrue(p99 < TimeUnit.SECONDS.toNanos(5), "Sign-up p99 must stay below the hashing timeout, was " + TimeUnit.NANOSECONDS.toMillis(p99) + " ms");
+
+        assertEquals(distinctUsers, created, "Exactly one sign-up per user must succeed");
+        assertEquals(requests.size() - distinctUsers, conflicts, "Every duplicate must return 409 (CONFLICT)");
+        assertEquals(distinctUsers, this.userRepository.count(), "No duplicated user must be persisted");
+    }
+
     @Test
     @DisplayName("it should be able to login user")
     public void it_should_be_able_to_login_user() {
@@ -149,6 +237,101 @@ public class UserControllerTest {
         assertFalse(body.getToken().isEmpty(), "Token should not be empty");
     }
 
+    @Test
+    @DisplayName("it should rehash a legacy password hash on login")
+    public void it_should_rehash_a_legacy_password_hash_on_login() {
+
+        UserEntity user = UserFactories.createUser();
+        String password = user.getPassword();
+        user.setPassword(new BCryptPasswordEncoder().encode(password));
+        this.userRepository.save(user);
+
+        LoginUserRequestDTO loginUserRequestDTO = new LoginUserRequestDTO(user.getEmail(), password);
+
+        ResponseEntity<LoginUserResponseDTO> response = testRestTemplate.exchange(
+            "/api/v1/user/login",
+            HttpMethod.POST,
+            new HttpEntity<>(loginUserRequestDTO),
+            LoginUserResponseDTO.class
+            );
+
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode(), "Status must be 202 (ACCEPTED)");
+
+        String storedPassword = this.userRepository.findById(user.getId()).orElseThrow().getPassword();
+
+        assertTrue(storedPassword.startsWith("{bcrypt}"), "Legacy hash must be rewritten with the encoder prefix");
+        assertTrue(this.passwordEncoder.matches(password, storedPassword), "New hash must match the password");
+    }
+
+    @Test
+    @DisplayName("it should rotate the refresh token and reject its reuse")
+    public void it_should_rotate_the_refresh_token_and_reject_its_reuse() {
+
+        LoginUserResponseDTO login = this.loginNewUser();
+
+        assertNotNull("Refresh token should not be null", login.getRefreshToken());
+
+        HttpEntity<RefreshTokenRequestDTO> request = new HttpEntity<>(new RefreshTokenRequestDTO(login.getRefreshToken()));
+
+        ResponseEntity<RefreshTokenResponseDTO> response = testRestTemplate.exchange(
+            "/api/v1/user/refresh",
+            HttpMethod.POST,
+            request,
+            RefreshTokenResponseDTO.class
+            );
+
+        assertEquals(HttpStatus.OK, response.getStatusCode(), "Status must be 200 (OK)");
+        assertNotNull("The response body should not be null", response.getBody());
+        assertFalse(login.getRefreshToken().equals(response.getBody().getRefreshToken()), "Refresh token must be rotated");
+
+        ResponseEntity<String> reuse = testRestTemplate.exchange(
+            "/api/v1/user/refresh",
+            HttpMethod.POST,
+            request,
+            String.class
+            );
+
+        assertEquals(HttpStatus.UNAUTHORIZED, reuse.getStatusCode(), "Reusing a refresh token must return 401");
+
+        // A reutilização revoga a família inteira, inclusive o token emitido na rotação
+        ResponseEntity<String> rotatedAfterReuse = testRestTemplate.exchange(
+            "/api/v1/user/refresh",
+            HttpMethod.POST,
+            new HttpEntity<>(new RefreshTokenRequestDTO(response.getBody().getRefreshToken())),
+            String.class
+            );
+
+        assertEquals(HttpStatus.UNAUTHORIZED, rotatedAfterReuse.getStatusCode(), "The whole family must be revoked");
+    }
+
+    @Test
+    @DisplayName("it should reject the access token after logout")
+    public void it_should_reject_the_access_token_after_logout() {
+
+        LoginUserResponseDTO login = this.loginNewUser();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", "Bearer " + login.getToken());
+
+        ResponseEntity<Void> logout = testRestTemplate.exchange(
+            "/api/v1/user/logout",
+            HttpMethod.POST,
+            new HttpEntity<>(new RefreshTokenRequestDTO(login.getRefreshToken()), headers),
+            Void.class
+            );
+
+        assertEquals(HttpStatus.NO_CONTENT, logout.getStatusCode(), "Status must be 204 (NO_CONTENT)");
+
+        ResponseEntity<String> profile = testRestTemplate.exchange(
+            "/api/v1/user/profile",
+            HttpMethod.GET,
+            new HttpEntity<>(null, headers),
+            String.class
+            );
+
+        assertEquals(HttpStatus.UNAUTHORIZED, profile.getStatusCode(), "Revoked access token must return 401");
+    }
+
     @Test
     @DisplayName("it should be able get user profile")
     public void it_should_be_able_get_user_profile() {
@@ -198,9 +381,49 @@ public class UserControllerTest {
         assertEquals(user.getUsername(), body.getUsername(), "Username must match");
         assertEquals(user.getEmail(), body.getEmail(), "Email must match");
         assertEquals(user.getPhoneNumber(), body.getPhoneNumber(), "PhoneNumber must match");
+        // tokenVersion (cache frio) + SELECT do usuário
+        SqlStatementBudget.assertAtMost(2, response, "GET /user/profile");
     }
     
 
+    @Test
+    @DisplayName("it should expose the hot path metrics to Prometheus")
+    public void it_should_expose_the_hot_path_metrics_to_prometheus() {
+
+        UserEntity user = UserFactories.createUser();
+        String password = user.getPassword();
+        user.setPassword(this.passwordEncoder.encode(password));
+        this.userRepository.save(user);
+
+        ResponseEntity<LoginUserResponseDTO> responseLogin = testRestTemplate.exchange(
+            "/api/v1/user/login",
+            HttpMethod.POST,
+            new HttpEntity<>(new LoginUserRequestDTO(user.getEmail(), password)),
+            LoginUserResponseDTO.class
+            );
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", "Bearer " + responseLogin.getBody().getToken());
+
+        testRestTemplate.exchange("/api/v1/user/profile", HttpMethod.GET, new HttpEntity<>(null, headers), String.class);
+
+        // Sem autenticação: o scrape do Prometheus não tem token
+        ResponseEntity<String> scrape = testRestTemplate.getForEntity("/actuator/prometheus", String.class);
+
+        assertEquals(HttpStatus.OK, scrape.getStatusCode(), "Status must be 200 (OK)");
+
+        String metrics = scrape.getBody();
+
+        assertTrue(metrics.contains("http_server_requests_seconds_bucket{"), "Endpoint timers must publish histogram buckets");
+        assertTrue(metrics.contains("uri=\"/api/v1/user/profile\""), "Endpoint timers must be tagged by uri");
+        assertTrue(metrics.contains("app_jwt_validate_seconds_bucket"), "JWT validation must be timed");
+        assertTrue(metrics.contains("app_password_hash_seconds_bucket"), "Password hashing must be timed");
+        assertTrue(metrics.contains("cache_gets_total{cache=\"jwt.verified\""), "JWT cache hits and misses must be exposed");
+        assertTrue(metrics.contains("cache_gets_total{cache=\"jwt.token-version\""), "Token version cache hits and misses must be exposed");
+        assertTrue(metrics.contains("hikaricp_connections_active"), "Hikari pool gauges must be exposed");
+        assertTrue(metrics.contains("hibernate_statements_total"), "Hibernate statistics must be exposed");
+    }
+
     @Test
     @DisplayName("it should be able delete user")
     public void it_should_be_able_delete_user() {
@@ -247,6 +470,71 @@ public class UserControllerTest {
         DeleteUserResponseDTO body = response.getBody();
 
         assertEquals(true, body.getDeleted());
+        // tokenVersion (cache frio) + sonda do tamanho da conta + DELETE do usuário (tasks e refresh tokens vão no CASCADE)
+        SqlStatementBudget.assertAtMost(3, response, "DELETE /user/delete");
+
+        // O token do usuário removido para de valer na hora, sem esperar o refresh do TokenVersionCache
+        ResponseEntity<String> profile = testRestTemplate.exchange("/api/v1/user/profile", HttpMethod.GET, request, String.class);
+        assertFalse(profile.getStatusCode().is2xxSuccessful(), "The deleted user's token must be rejected");
+    }
+
+    @Test
+    @DisplayName("it should lock the account and purge it in background when it has many tasks")
+    public void it_should_lock_the_account_and_purge_it_in_background() throws InterruptedException {
+
+        UserEntity user = UserFactories.createUser();
+        String password = user.getPassword();
+        user.setPassword(this.passwordEncoder.encode(password));
+        this.userRepository.save(user);
+
+        for(int i = 0; i < 5; i++){
+            this.taskRepository.save(TaskFactories.createTask(user));
+        }
+
+        LoginUserRequestDTO loginUserRequestDTO = new LoginUserRequestDTO(user.getEmail(), password);
+
+        ResponseEntity<LoginUserResponseDTO> responseLogin = testRestTemplate.exchange(
+            "/api/v1/user/login", HttpMethod.POST, new HttpEntity<>(loginUserRequestDTO), LoginUserResponseDTO.class
+        );
+
+        assertEquals(HttpStatus.ACCEPTED, responseLogin.getStatusCode(), "Login should return 202 (ACCEPTED)");
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", "Bearer " + responseLogin.getBody().getToken());
+
+        ResponseEntity<DeleteUserResponseDTO> response = testRestTemplate.exchange(
+            "/api/v1/user/delete", HttpMethod.DELETE, new HttpEntity<>(null, headers), DeleteUserResponseDTO.class
+        );
+
+        assertEquals(HttpStatus.OK, response.getStatusCode(), "Status must be 200 (OK)");
+        assertEquals(false, response.getBody().getDeleted(), "Deleted must be false while the purge runs");
+        assertEquals(true, response.getBody().getPending(), "Pending must be true");
+
+        // A conta para de autenticar antes do fim do expurgo
+        ResponseEntity<String> loginAgain = testRestTemplate.exchange(
+            "/api/v1/user/login", HttpMethod.POST, new HttpEntity<>(loginUserRequestDTO), String.class
+        );
+        assertFalse(loginAgain.getStatusCode().is2xxSuccessful(), "A pending account must not log in");
+
+        ResponseEntity<String> refresh = testRestTemplate.exchange(
+            "/api/v1/user/refresh",
+            HttpMethod.POST,
+            new HttpEntity<>(new RefreshTokenRequestDTO(responseLogin.getBody().getRefreshToken())),
+            String.class
+        );
+        assertFalse(refresh.getStatusCode().is2xxSuccessful(), "Refresh tokens must be revoked");
+
+        ResponseEntity<String> profile = testRestTemplate.exchange(
+            "/api/v1/user/profile", HttpMethod.GET, new HttpEntity<>(null, headers), String.class
+        );
+        assertFalse(profile.getStatusCode().is2xxSuccessful(), "The access token must be rejected");
+
+        for(int i = 0; i < 50 && this.userRepository.existsById(user.getId()); i++){
+            TimeUnit.MILLISECONDS.sleep(100);
+        }
+
+        assertFalse(this.userRepository.existsById(user.getId()), "The purge must remove the user");
+        assertEquals(0, this.taskRepository.countByUserEntity_Id(user.getId()), "The purge must remove every task");
     }
 
     @Test
@@ -419,6 +707,46 @@ public class UserControllerTest {
         assertNull("The response body must be null", response.getBody());
     }
 
+    @Test
+    @DisplayName("it should reject tokens issued before a password change")
+    public void it_should_reject_tokens_issued_before_a_password_change() {
+
+        UserEntity user = UserFactories.createUser();
+        String password = user.getPassword();
+        user.setPassword(this.passwordEncoder.encode(password));
+        this.userRepository.save(user);
+
+        ResponseEntity<LoginUserResponseDTO> responseLogin = testRestTemplate.exchange(
+            "/api/v1/user/login",
+            HttpMethod.POST,
+            new HttpEntity<>(new LoginUserRequestDTO(user.getEmail(), password)),
+            LoginUserResponseDTO.class
+            );
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", "Bearer " + responseLogin.getBody().getToken());
+
+        ChangePasswordRequestDTO changePasswordRequestDTO = new ChangePasswordRequestDTO(password, faker.internet().password(8, 16));
+
+        ResponseEntity<Void> response = testRestTemplate.exchange(
+            "/api/v1/user/change-password",
+            HttpMethod.POST,
+            new HttpEntity<>(changePasswordRequestDTO, headers),
+            Void.class
+        );
+
+        assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode(), "Status must be 204 (NO_CONTENT)");
+
+        ResponseEntity<String> profile = testRestTemplate.exchange(
+            "/api/v1/user/profile",
+            HttpMethod.GET,
+            new HttpEntity<>(null, headers),
+            String.class
+            );
+
+        assertEquals(HttpStatus.UNAUTHORIZED, profile.getStatusCode(), "Token from before the password change must return 401");
+    }
+
     @Test
     @DisplayName("it should be able reset user password")
     public void it_should_be_able_reset_user_password() {
@@ -445,4 +773,59 @@ public class UserControllerTest {
         assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode(), "Status must br 204 (NO_CONTENT)");
         assertNull("The response body must be null", response.getBody());
     }
+
+    @Test
+    @DisplayName("it should bump the token version once per concurrent password reset")
+    public void it_should_bump_the_token_version_once_per_concurrent_password_reset() throws Exception {
+
+        UserEntity user = UserFactories.createUser();
+        user.setPassword(this.passwordEncoder.encode(user.getPassword()));
+        this.userRepository.save(user);
+
+        int resets = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(resets);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<HttpStatusCode>> statuses = new ArrayList<>();
+
+        for (int i = 0; i < resets; i++) {
+            ResetPasswordRequestDTO resetPasswordRequestDTO = new ResetPasswordRequestDTO(user.getEmail(), faker.internet().password(8, 16));
+            statuses.add(executor.submit(() -> {
+                start.await();
+                return testRestTemplate.exchange(
+                    "/api/v1/user/reset-password", HttpMethod.POST, new HttpEntity<>(resetPasswordRequestDTO), Void.class
+                ).getStatusCode();
+            }));
+        }
+
+        start.countDown();
+
+        for (Future<HttpStatusCode> status : statuses) {
+            assertEquals(HttpStatus.NO_CONTENT, status.get(1, TimeUnit.MINUTES), "Every reset must succeed");
+        }
+        executor.shutdown();
+
+        // Com o incremento em Java, resets simultâneos gravavam todos a mesma versão N+1
+        assertEquals(
+            user.getTokenVersion() + resets,
+            this.userRepository.findTokenVersionById(user.getId()).orElseThrow(),
+            "Each reset must invalidate the tokens issued before it"
+        );
+    }
+
+    private LoginUserResponseDTO loginNewUser() {
+        UserEntity user = UserFactories.createUser();
+        String password = user.getPassword();
+        user.setPassword(this.passwordEncoder.encode(password));
+        this.userRepository.save(user);
+
+        ResponseEntity<LoginUserResponseDTO> response = testRestTemplate.exchange(
+            "/api/v1/user/login",
+            HttpMethod.POST,
+            new HttpEntity<>(new LoginUserRequestDTO(user.getEmail(), password)),
+            LoginUserResponseDTO.class
+            );
+
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode(), "Login should return 202 (ACCEPTED)");
+        return response.getBody();
+    }
 }
@@ -0,0 +1,159 @@
+package com.kioshi.todolist.integration.nativeimage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+// Roda no profile "native" (failsafe, depois do package): sobe o binário nativo e o jar na JVM contra o mesmo
+// Postgres e compara tempo até o primeiro request atendido e RSS. O RSS vem de /proc, então só é medido no Linux
+@Testcontainers
+@EnabledIfSystemProperty(named = "native.binary", matches = ".+")
+public class NativeImageSmokeIT {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(90);
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15.3")
+        .withDatabaseName("testDB")
+        .withUsername("test")
+        .withPassword("test");
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+        .connectTimeout(Duration.ofSeconds(1))
+        .build();
+
+    @Test
+    @DisplayName("it should boot the native binary and answer the first request")
+    public void it_should_boot_the_native_binary_and_answer_the_first_request() throws Exception {
+
+        File binary = new File(System.getProperty("native.binary"));
+        assertTrue(binary.canExecute(), "Native binary must exist: " + binary);
+
+        StartupReport nativeReport = this.measure("native", List.of(binary.getAbsolutePath()), 18081);
+
+        String jar = System.getProperty("jvm.jar");
+        StartupReport jvmReport = null;
+
+        if(jar != null && new File(jar).exists()){
+            String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+            jvmReport = this.measure("jvm", List.of(java, "-jar", jar), 18082);
+        }
+
+        System.out.println();
+        System.out.println("modo    | pronto (ms) | 1º request (ms) | RSS (MB)");
+        System.out.println(nativeReport);
+        if(jvmReport != null){
+            System.out.println(jvmReport);
+        }
+    }
+
+    private StartupReport measure(String mode, List<String> command, int port) throws Exception {
+        List<String> args = new ArrayList<>(command);
+        args.add("--server.port=" + port);
+        args.add("--spring.datasource.url=" + postgres.getJdbcUrl());
+        args.add("--spring.datasource.username=" + postgres.getUsername());
+        args.add("--spring.datasource.password=" + postgres.getPassword());
+        args.add("--spring.mail.host=localhost");
+        args.add("--app.mail.from=smoke@todolist.local");
+
+        ProcessBuilder builder = new ProcessBuilder(args)
+            .redirectErrorStream(true)
+            .redirectOutput(Path.of("target", "native-smoke-" + mode + ".log").toFile());
+        builder.environment().putAll(Map.of("JWT_SECRET", "native-smoke-secret"));
+
+        long start = System.nanoTime();
+        Process process = builder.start();
+
+        try{
+            this.waitUntilHealthy(process, port);
+            long readyMs = (System.nanoTime() - start) / 1_000_000;
+
+            // Primeiro request de verdade: cadastro, que passa por JPA, Flyway já aplicado e hashing
+            String suffix = UUID.randomUUID().toString().substring(0, 8);
+            String body = """
+                {"name":"Smoke %s","username":"smoke_%s","password":"senha12345","email":"smoke_%s@email.com","phoneNumber":"18991111111"}
+                """.formatted(mode, suffix, suffix);
+
+            HttpResponse<String> response = this.httpClient.send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/user/create"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build(),
+                HttpResponse.BodyHandlers.ofString()
+            );
+            long firstRequestMs = (System.nanoTime() - start) / 1_000_000;
+
+            assertEquals(201, response.statusCode(), mode + " first request must return 201: " + response.body());
+
+            return new StartupReport(mode, readyMs, firstRequestMs, this.rssMegabytes(process.pid()));
+        }finally{
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private void waitUntilHealthy(Process process, int port) throws Exception {
+        HttpRequest health = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/actuator/health")).build();
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+
+        while(System.nanoTime() < deadline){
+            assertTrue(process.isAlive(), "Process exited during startup, see target/native-smoke-*.log");
+
+            try{
+                if(this.httpClient.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200){
+                    return;
+                }
+            }catch(IOException e){
+                // Porta ainda fechada
+            }
+
+            Thread.sleep(10);
+        }
+
+        throw new AssertionError("Application was not healthy after " + STARTUP_TIMEOUT);
+    }
+
+    private long rssMegabytes(long pid) throws IOException {
+        Path status = Path.of("/proc", String.valueOf(pid), "status");
+
+        if(!Files.exists(status)){
+            return -1;
+        }
+
+        for(String line : Files.readAllLines(status)){
+            if(line.startsWith("VmRSS:")){
+                return Long.parseLong(line.replaceAll("\\D", "")) / 1024;
+            }
+        }
+
+        return -1;
+    }
+
+    private record StartupReport(String mode, long readyMs, long firstRequestMs, long rssMb) {
+
+        @Override
+        public String toString(){
+            return String.format("%-7s | %11d | %15d | %8d", mode, readyMs, firstRequestMs, rssMb);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.kioshi.todolist.integration.services;
+
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.kioshi.todolist.entities.EmailOutboxEntity;
+import com.kioshi.todolist.enums.EmailOutboxStatus;
+import com.kioshi.todolist.repositories.EmailOutboxRepository;
+import com.kioshi.todolist.services.EmailOutboxDispatcher;
+import com.kioshi.todolist.services.EmailService;
+
+@SpringBootTest
+@Testcontainers
+public class EmailOutboxDispatcherTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15.3")
+        .withDatabaseName("testDB")
+        .withUsername("test")
+        .withPassword("test");
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP)
+        .withConfiguration(GreenMailConfiguration.aConfig().withUser("todolist", "secret"));
+
+    @DynamicPropertySource
+    static void configureDatasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.mail.host", () -> "localhost");
+        registry.add("spring.mail.port", () -> ServerSetupTest.SMTP.getPort());
+        registry.add("spring.mail.username", () -> "todolist");
+        registry.add("spring.mail.password", () -> "secret");
+        registry.add("spring.mail.properties.mail.smtp.starttls.enable", () -> "false");
+        registry.add("app.mail.outbox.poll-interval-ms", () -> "3600000");
+    }
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private EmailOutboxDispatcher emailOutboxDispatcher;
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    private JavaMailSenderImpl javaMailSender;
+
+    @AfterEach
+    void cleanUp() {
+        this.emailOutboxRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("it should be able send queued emails in a batch")
+    public void it_should_be_able_send_queued_emails_in_a_batch() {
+
+        for(int i = 0; i < 5; i++){
+            this.emailService.queueEmail("user" + i + "@email.com", "Assunto " + i, "Corpo " + i);
+        }
+
+        this.emailOutboxDispatcher.dispatch();
+
+        assertTrue(greenMail.waitForIncomingEmail(5000, 5), "All queued emails must reach the SMTP server");
+        assertEquals(5, greenMail.getReceivedMessages().length, "The SMTP server must receive 5 emails");
+
+        for(EmailOutboxEntity email : this.emailOutboxRepository.findAll()){
+            assertEquals(EmailOutboxStatus.SENT, email.getStatus(), "Every outbox entry must be marked as SENT");
+        }
+    }
+
+    @Test
+    @DisplayName("it should apply the default SMTP timeouts")
+    public void it_should_apply_the_default_smtp_timeouts() {
+
+        Properties properties = this.javaMailSender.getJavaMailProperties();
+
+        assertEquals("10000", properties.getProperty("mail.smtp.connectiontimeout"), "The SMTP connection timeout must be set");
+        assertEquals("10000", properties.getProperty("mail.smtp.timeout"), "The SMTP read timeout must be set");
+        assertEquals("10000", properties.getProperty("mail.smtp.writetimeout"), "The SMTP write timeout must be set");
+    }
+}
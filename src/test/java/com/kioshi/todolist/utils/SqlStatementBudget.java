@@ -0,0 +1,25 @@
+package com.kioshi.todolist.utils;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.springframework.http.ResponseEntity;
+
+import com.kioshi.todolist.config.SqlStatementFilter;
+
+// Lê a contagem de statements que o SqlStatementFilter devolve com app.sql.statement-count-header=true
+public final class SqlStatementBudget {
+
+    private SqlStatementBudget() {}
+
+    public static int statements(ResponseEntity<?> response) {
+        String header = response.getHeaders().getFirst(SqlStatementFilter.STATEMENTS_HEADER);
+        assertNotNull(header, "Response must carry " + SqlStatementFilter.STATEMENTS_HEADER);
+        return Integer.parseInt(header);
+    }
+
+    public static void assertAtMost(int budget, ResponseEntity<?> response, String endpoint) {
+        int statements = statements(response);
+        assertTrue(statements <= budget, endpoint + " must run at most " + budget + " SQL statements, ran " + statements);
+    }
+}
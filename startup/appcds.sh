@@ -0,0 +1,25 @@
+#!/usr/bin/env bash
+# Gera o arquivo AppCDS (class data sharing) a partir de uma subida de treino da aplicação.
+#
+#   startup/appcds.sh target/todolist-0.0.1-SNAPSHOT.jar [target/fast-start]
+#
+# A subida de treino vai até o refresh do contexto (spring.context.exit=onRefresh), então precisa do banco e das
+# mesmas variáveis da execução normal (JWT_SECRET, SPRING_DATASOURCE_URL...). O resultado é o jar extraído em
+# camadas e o application.jsa ao lado dele:
+#
+#   java -XX:SharedArchiveFile=target/fast-start/application.jsa -jar target/fast-start/todolist-0.0.1-SNAPSHOT.jar
+set -euo pipefail
+
+JAR="${1:?informe o jar executável}"
+OUT="${2:-$(dirname "$JAR")/fast-start}"
+
+rm -rf "$OUT"
+java -Djarmode=tools -jar "$JAR" extract --destination "$OUT"
+
+APP_JAR="$OUT/$(basename "$JAR")"
+
+java -XX:ArchiveClassesAtExit="$OUT/application.jsa" \
+    -Dspring.context.exit=onRefresh \
+    -jar "$APP_JAR"
+
+echo "AppCDS gerado em $OUT/application.jsa"
@@ -0,0 +1,48 @@
+#!/usr/bin/env bash
+# Compara o tempo de subida (JVM iniciada até o contexto Spring pronto) em três modos:
+#   jar      -> java -jar do fat jar
+#   extracted-> jar extraído em camadas, sem AppCDS
+#   appcds   -> jar extraído com o application.jsa gerado por startup/appcds.sh
+#
+#   startup/benchmark.sh target/todolist-0.0.1-SNAPSHOT.jar [target/fast-start] [rodadas]
+#
+# Cada rodada sai no fim do refresh (spring.context.exit=onRefresh). Precisa do banco, como no appcds.sh.
+# O resultado (mediana em ms de cada modo) vai para a saída e para target/startup-benchmark.txt; a saída de cada
+# subida vai para target/startup-benchmark.log. Uma subida que falhar interrompe o benchmark.
+set -euo pipefail
+
+JAR="${1:?informe o jar executável}"
+OUT="${2:-$(dirname "$JAR")/fast-start}"
+RUNS="${3:-5}"
+APP_JAR="$OUT/$(basename "$JAR")"
+REPORT="$(dirname "$JAR")/startup-benchmark.txt"
+LOG="$(dirname "$JAR")/startup-benchmark.log"
+: > "$LOG"
+
+measure() {
+    local times=()
+    for _ in $(seq "$RUNS"); do
+        local start end
+        echo "== java $*" >> "$LOG"
+        start=$(date +%s%N)
+        if ! java -Dspring.context.exit=onRefresh "$@" >> "$LOG" 2>&1; then
+            echo "falha ao subir a aplicação (java $*), veja $LOG" >&2
+            return 1
+        fi
+        end=$(date +%s%N)
+        times+=($(( (end - start) / 1000000 )))
+    done
+    printf '%s\n' "${times[@]}" | sort -n | awk '{ v[NR] = $1 } END { print v[int((NR + 1) / 2)] }'
+}
+
+# Atribuição direta: com set -e, uma subida que falha encerra o script (dentro do echo ela seria ignorada)
+jar_ms=$(measure -jar "$JAR")
+extracted_ms=$(measure -jar "$APP_JAR")
+appcds_ms=$(measure -XX:SharedArchiveFile="$OUT/application.jsa" -jar "$APP_JAR")
+
+{
+    echo "modo       mediana (ms), $RUNS rodadas"
+    echo "jar        $jar_ms"
+    echo "extracted  $extracted_ms"
+    echo "appcds     $appcds_ms"
+} | tee "$REPORT"